@@ -139,26 +139,31 @@ public static void addPieceToGroup(Class<? extends SpellPiece> clazz, ResourceLo
 	 * more than one, this will return null.
 	 */
 	public static ItemStack getPlayerCAD(Player player) {
-		if(player == null) {
+		int slot = getPlayerCADSlot(player);
+		if(slot == -1) {
 			return ItemStack.EMPTY;
 		}
 
-		ItemStack cad = ItemStack.EMPTY;
-		for(int i = 0; i < player.getInventory().getContainerSize(); i++) {
-			ItemStack stackAt = player.getInventory().getItem(i);
-			if(!stackAt.isEmpty() && stackAt.getItem() instanceof ICAD) {
-				if(!cad.isEmpty()) {
-					return ItemStack.EMPTY; // Player can only have one CAD
-				}
+		return player.getInventory().getItem(slot);
+	}
 
-				cad = stackAt;
-			}
+	/**
+	 * Gets the inventory slot of the CAD the passed PlayerEntity is using, or -1 if there's none.
+	 * The slot is cached in the player's data and only looked up again when the inventory changes.
+	 */
+	public static int getPlayerCADSlot(Player player) {
+		if(player == null) {
+			return -1;
 		}
 
-		return cad;
+		return internalHandler.getDataForPlayer(player).getCADSlot();
 	}
 
-	public static int getPlayerCADSlot(Player player) {
+	/**
+	 * Scans the inventory of the passed PlayerEntity for its CAD slot. This doesn't use any caching,
+	 * use {@link #getPlayerCADSlot(Player)} instead.
+	 */
+	public static int findPlayerCADSlot(Player player) {
 		if(player == null) {
 			return -1;
 		}
@@ -19,6 +19,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * This capability defines items that can have Spell Bullets inserted into them.
@@ -97,6 +98,15 @@ default int getLastSlot() {
 		return slot;
 	}
 
+	/**
+	 * Gets a hash of the bullet in the given socket, which changes whenever the bullet does.
+	 * Used to check that a loopcast is still running the same spell without decoding the bullet.
+	 */
+	default int getSocketContentHash(int slot) {
+		ItemStack bullet = getBulletInSocket(slot);
+		return bullet.isEmpty() ? 0 : 31 * bullet.getItem().hashCode() + Objects.hashCode(bullet.getTag());
+	}
+
 	default ItemStack getSelectedBullet() {
 		return getBulletInSocket(getSelectedSlot());
 	}
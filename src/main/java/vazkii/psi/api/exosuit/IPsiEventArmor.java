@@ -17,4 +17,13 @@ public interface IPsiEventArmor {
 
 	void onEvent(ItemStack stack, PsiArmorEvent event);
 
+	/**
+	 * Whether the given stack wants events of the given type at all. Worn stacks that don't listen
+	 * to a type are skipped entirely, so frequent events such as {@link PsiArmorEvent#TICK} are never
+	 * dispatched for players without a matching armor piece.
+	 */
+	default boolean listensTo(ItemStack stack, String type) {
+		return true;
+	}
+
 }
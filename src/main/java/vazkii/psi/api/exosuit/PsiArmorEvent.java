@@ -13,6 +13,8 @@
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 
+import java.util.function.Consumer;
+
 public class PsiArmorEvent extends PlayerEvent {
 
 	// DO NOT FIRE AN EVENT WITH THIS
@@ -57,4 +59,16 @@ public static void post(PsiArmorEvent event) {
 		}
 	}
 
+	/**
+	 * Hands the event straight to the given handler without going through the event bus.
+	 * Meant for high frequency events that only concern the armor the player is wearing.
+	 */
+	public static void dispatch(PsiArmorEvent event, Consumer<PsiArmorEvent> handler) {
+		if(!posting) {
+			posting = true;
+			handler.accept(event);
+			posting = false;
+		}
+	}
+
 }
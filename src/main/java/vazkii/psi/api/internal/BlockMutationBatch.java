@@ -0,0 +1,109 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.internal;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.util.BlockSnapshot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Groups the block changes of a trick that touches many blocks at once, like the sequence tricks.
+ * <p>
+ * While a batch is open, block changes are made in the world right away, so anything done later in the
+ * batch sees them, but placement callbacks, client updates, neighbor updates and shape updates are held back.
+ * {@link #commit()} then runs them once per changed position, section by section. Client updates are sent
+ * through the chunk holders, which already send one packet per changed section.
+ * <p>
+ * This uses Forge's block snapshot capturing. If something else is already capturing when the batch is opened,
+ * the batch does nothing and leaves the updates to it.
+ *
+ * <pre>
+ * BlockMutationBatch batch = BlockMutationBatch.begin(world);
+ * try {
+ *     // set, place or break blocks
+ * } finally {
+ *     batch.commit();
+ * }
+ * </pre>
+ */
+public final class BlockMutationBatch {
+
+	private final Level level;
+	private final boolean active;
+	private final int start;
+	private boolean committed;
+
+	private BlockMutationBatch(Level level) {
+		this.level = level;
+		this.active = !level.isClientSide && !level.captureBlockSnapshots;
+		this.start = level.capturedBlockSnapshots.size();
+
+		if(active) {
+			level.captureBlockSnapshots = true;
+		}
+	}
+
+	public static BlockMutationBatch begin(Level level) {
+		return new BlockMutationBatch(level);
+	}
+
+	/**
+	 * Sets a block as part of the batch.
+	 */
+	public boolean set(BlockPos pos, BlockState state) {
+		return level.setBlockAndUpdate(pos, state);
+	}
+
+	/**
+	 * Removes a block as part of the batch.
+	 */
+	public boolean remove(BlockPos pos, boolean isMoving) {
+		return level.removeBlock(pos, isMoving);
+	}
+
+	/**
+	 * Stops capturing and runs the held back updates. Safe to call more than once.
+	 */
+	public void commit() {
+		if(!active || committed) {
+			return;
+		}
+		committed = true;
+		level.captureBlockSnapshots = false;
+
+		List<BlockSnapshot> captured = level.capturedBlockSnapshots;
+		List<BlockSnapshot> snapshots = new ArrayList<>(captured.subList(start, captured.size()));
+		captured.subList(start, captured.size()).clear();
+
+		// Only the first snapshot of a position has the state from before the batch
+		Set<BlockPos> seen = new HashSet<>();
+		snapshots.removeIf(snapshot -> !seen.add(snapshot.getPos()));
+		snapshots.sort(Comparator.comparingLong(snapshot -> SectionPos.asLong(snapshot.getPos())));
+
+		for(BlockSnapshot snapshot : snapshots) {
+			BlockPos pos = snapshot.getPos();
+			BlockState oldState = snapshot.getReplacedBlock();
+			BlockState newState = level.getBlockState(pos);
+
+			if(newState != oldState) {
+				newState.onPlace(level, pos, oldState, false);
+			}
+			level.markAndNotifyBlock(pos, level.getChunkAt(pos), oldState, newState, snapshot.getFlag(), 512);
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.internal;
+
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Looks up the chunks around a spell's focal point once per tick, so block tricks read block states
+ * straight from the chunk instead of going through the level for every position.
+ * <p>
+ * Chunks that aren't loaded are never loaded by this, positions in them count as not loaded and read as void air.
+ * Use it instead of {@link Level#getBlockState(BlockPos)} wherever a spell could reach into an unloaded chunk,
+ * since the level would load it synchronously.
+ */
+public final class ChunkAccessCache {
+
+	// Chunks around the center chunk in each direction, enough to cover the spell radius wherever the center is in its chunk
+	private static final int REACH = 3;
+	private static final int SIZE = REACH * 2 + 1;
+
+	private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+	private final Level level;
+	private final LevelChunk[] chunks = new LevelChunk[SIZE * SIZE];
+	private final boolean[] resolved = new boolean[SIZE * SIZE];
+	// Whether the player may interact with each whole chunk, only for chunks where that's the same everywhere in them
+	private final Long2BooleanMap interactions = new Long2BooleanOpenHashMap();
+	private Player interactor;
+	private int centerX;
+	private int centerZ;
+	private long time;
+
+	public ChunkAccessCache(Level level) {
+		this.level = level;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	/**
+	 * Moves the cached area to be centered on the given position, and forgets the chunks if a tick has passed
+	 * since they were looked up, since they may have been unloaded since then.
+	 */
+	public ChunkAccessCache center(double x, double z) {
+		int chunkX = SectionPos.posToSectionCoord(x);
+		int chunkZ = SectionPos.posToSectionCoord(z);
+		long now = level.getGameTime();
+
+		if(chunkX != centerX || chunkZ != centerZ || now != time) {
+			centerX = chunkX;
+			centerZ = chunkZ;
+			time = now;
+			clear();
+		}
+		return this;
+	}
+
+	public void clear() {
+		Arrays.fill(chunks, null);
+		Arrays.fill(resolved, false);
+		interactions.clear();
+	}
+
+	/**
+	 * Same as {@link Level#mayInteract(Player, BlockPos)}, but asked only once per chunk.
+	 * Vanilla's checks for the world border and spawn protection don't line up with chunks,
+	 * so chunks that cross either are still asked about every position.
+	 */
+	public boolean mayInteract(Player player, BlockPos pos) {
+		if(player != interactor) {
+			interactor = player;
+			interactions.clear();
+		}
+
+		long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+		if(interactions.containsKey(key)) {
+			return interactions.get(key);
+		}
+
+		boolean result = level.mayInteract(player, pos);
+		if(isUniform(new ChunkPos(key))) {
+			interactions.put(key, result);
+		}
+		return result;
+	}
+
+	private boolean isUniform(ChunkPos chunkPos) {
+		if(!level.getWorldBorder().isWithinBounds(chunkPos)) {
+			return false;
+		}
+
+		MinecraftServer server = level.getServer();
+		if(server != null && level.dimension() == Level.OVERWORLD) {
+			int radius = server.getSpawnProtectionRadius();
+			BlockPos spawn = level.getSharedSpawnPos();
+			if(radius > 0 && chunkPos.getMaxBlockX() >= spawn.getX() - radius && chunkPos.getMinBlockX() <= spawn.getX() + radius
+					&& chunkPos.getMaxBlockZ() >= spawn.getZ() - radius && chunkPos.getMinBlockZ() <= spawn.getZ() + radius) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the chunk the position is in, or null if it isn't loaded.
+	 */
+	@Nullable
+	public LevelChunk getChunk(BlockPos pos) {
+		return getChunk(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+	}
+
+	@Nullable
+	public LevelChunk getChunk(int chunkX, int chunkZ) {
+		int dx = chunkX - centerX + REACH;
+		int dz = chunkZ - centerZ + REACH;
+		if(dx < 0 || dx >= SIZE || dz < 0 || dz >= SIZE) {
+			return level.getChunkSource().getChunkNow(chunkX, chunkZ);
+		}
+
+		int idx = dx * SIZE + dz;
+		if(!resolved[idx]) {
+			chunks[idx] = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+			resolved[idx] = true;
+		}
+		return chunks[idx];
+	}
+
+	public boolean isLoaded(BlockPos pos) {
+		return !level.isOutsideBuildHeight(pos) && getChunk(pos) != null;
+	}
+
+	/**
+	 * Gets the block state at the position, or void air if it's outside the world or in a chunk that isn't loaded.
+	 */
+	public BlockState getBlockState(BlockPos pos) {
+		if(level.isOutsideBuildHeight(pos)) {
+			return VOID_AIR;
+		}
+
+		LevelChunk chunk = getChunk(pos);
+		return chunk == null ? VOID_AIR : chunk.getBlockState(pos);
+	}
+
+}
@@ -13,16 +13,22 @@
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
+import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.ISpellCache;
 import vazkii.psi.api.spell.ISpellCompiler;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.detonator.IDetonationHandler;
 
 import java.util.List;
 
@@ -83,4 +89,17 @@ public ItemStack createDefaultCAD(List<ItemStack> components) {
 	public ItemStack createCAD(ItemStack base, List<ItemStack> components) {
 		return ItemStack.EMPTY;
 	}
+
+	@Override
+	public List<Entity> getDetonators(Level level, Vec3 center, double range) {
+		return level.getEntitiesOfClass(Entity.class, new AABB(center, center).inflate(range),
+				entity -> entity.getCapability(PsiAPI.DETONATION_HANDLER_CAPABILITY).isPresent());
+	}
+
+	@Override
+	public void detonate(Player player, List<IDetonationHandler> handlers) {
+		for(IDetonationHandler handler : handlers) {
+			handler.detonate();
+		}
+	}
 }
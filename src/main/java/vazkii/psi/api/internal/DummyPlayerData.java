@@ -51,6 +51,11 @@ public boolean isOverflowed() {
 		return false;
 	}
 
+	@Override
+	public int getCADSlot() {
+		return -1;
+	}
+
 	@Override
 	public void deductPsi(int psi, int cd, boolean sync, boolean shatter) {
 		// NO-OP
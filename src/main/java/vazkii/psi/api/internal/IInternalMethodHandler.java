@@ -13,8 +13,11 @@
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
@@ -23,6 +26,7 @@
 import vazkii.psi.api.spell.ISpellCompiler;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.detonator.IDetonationHandler;
 
 import java.util.List;
 
@@ -81,4 +85,15 @@ public interface IInternalMethodHandler {
 	 * Creates a CAD with the Assembly ItemStack as a base and the components array as its components
 	 */
 	ItemStack createCAD(ItemStack base, List<ItemStack> components);
+
+	/**
+	 * Gets the entities with a detonation handler that may be within range of the given position.
+	 * The result can contain entities out of range, so their loci still need to be checked.
+	 */
+	List<Entity> getDetonators(Level level, Vec3 center, double range);
+
+	/**
+	 * Detonates the given handlers on behalf of the player, batching the ones that can share work.
+	 */
+	void detonate(Player player, List<IDetonationHandler> handlers);
 }
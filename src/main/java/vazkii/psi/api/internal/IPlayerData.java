@@ -52,6 +52,12 @@ public interface IPlayerData {
 	 */
 	boolean isOverflowed();
 
+	/**
+	 * Gets the inventory slot the player's CAD is in, or -1 if the player doesn't have exactly one.
+	 * This is cached and only looked up again when the player's inventory changes.
+	 */
+	int getCADSlot();
+
 	/**
 	 * Deducts the amount of psi given from the player's psi energy.
 	 * This will not check against the available amount. Any extra will be either
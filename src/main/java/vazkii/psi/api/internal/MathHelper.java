@@ -9,8 +9,10 @@
 package vazkii.psi.api.internal;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
 import net.minecraft.world.phys.Vec3;
 
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 
 public final class MathHelper {
@@ -28,62 +30,102 @@ public static LinkedHashSet<BlockPos> getBlocksAlongRay(Vec3 origin, Vec3 end) {
 	}
 
 	/**
-	 * [VanillaCopy] of {//@link net.minecraft.world.IWorldReader#doRayTrace(RayTraceContext, BiFunction, Function)}
-	 * but without the extra processing and endpoint bumping
+	 * Gets the blocks along a ray as a set of immutable positions.
+	 * Kept for compatibility, {@link #getPackedBlocksAlongRay(Vec3, Vec3, int)} and
+	 * {@link #visitBlocksAlongRay(Vec3, Vec3, int, BlockRayVisitor)} don't create an object per block.
 	 */
 	public static LinkedHashSet<BlockPos> getBlocksAlongRay(Vec3 origin, Vec3 end, int maxBlocks) {
 		LinkedHashSet<BlockPos> positions = new LinkedHashSet<>();
-		if(maxBlocks == 0) {
-			return positions;
+		visitBlocksAlongRay(origin, end, maxBlocks, (index, pos) -> positions.add(pos.immutable()));
+		return positions;
+	}
+
+	/**
+	 * Gets the blocks along a ray, in order, packed with {@link BlockPos#asLong()}.
+	 */
+	public static long[] getPackedBlocksAlongRay(Vec3 origin, Vec3 end, int maxBlocks) {
+		// Every axis can step at most once more than the blocks between the two ends
+		long bound = 4L + Math.abs(Mth.floor(end.x) - (long) Mth.floor(origin.x))
+				+ Math.abs(Mth.floor(end.y) - (long) Mth.floor(origin.y))
+				+ Math.abs(Mth.floor(end.z) - (long) Mth.floor(origin.z));
+		long[] positions = new long[(int) Math.max(0, Math.min(bound, maxBlocks))];
+		int count = visitBlocksAlongRay(origin, end, positions.length, (index, pos) -> {
+			positions[index] = pos.asLong();
+			return true;
+		});
+		return count == positions.length ? positions : Arrays.copyOf(positions, count);
+	}
+
+	/**
+	 * [VanillaCopy] of {//@link net.minecraft.world.IWorldReader#doRayTrace(RayTraceContext, BiFunction, Function)}
+	 * but without the extra processing and endpoint bumping.
+	 * The visitor is given the same mutable position every time, it must be copied to be kept.
+	 *
+	 * @return how many blocks were visited
+	 */
+	public static int visitBlocksAlongRay(Vec3 origin, Vec3 end, int maxBlocks, BlockRayVisitor visitor) {
+		if(maxBlocks <= 0) {
+			return 0;
 		}
-		if(origin.equals(end)) {
-			positions.add(new BlockPos(origin.x, origin.y, origin.z));
-		} else {
-			double endX = end.x;
-			double endY = end.y;
-			double endZ = end.z;
-			double originX = origin.x;
-			double originY = origin.y;
-			double originZ = origin.z;
-			int blockX = net.minecraft.util.Mth.floor(originX);
-			int blockY = net.minecraft.util.Mth.floor(originY);
-			int blockZ = net.minecraft.util.Mth.floor(originZ);
-			BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos(blockX, blockY, blockZ);
-			positions.add(blockPos.immutable());
-			double lengthX = endX - originX;
-			double lengthY = endY - originY;
-			double lengthZ = endZ - originZ;
-			int signumX = net.minecraft.util.Mth.sign(lengthX);
-			int signumY = net.minecraft.util.Mth.sign(lengthY);
-			int signumZ = net.minecraft.util.Mth.sign(lengthZ);
-			double stepSizeX = signumX == 0 ? Double.MAX_VALUE : (double) signumX / lengthX;
-			double stepSizeY = signumY == 0 ? Double.MAX_VALUE : (double) signumY / lengthY;
-			double stepSizeZ = signumZ == 0 ? Double.MAX_VALUE : (double) signumZ / lengthZ;
-			double totalStepsX = stepSizeX * (signumX > 0 ? 1.0D - net.minecraft.util.Mth.frac(originX) : net.minecraft.util.Mth.frac(originX));
-			double totalStepsY = stepSizeY * (signumY > 0 ? 1.0D - net.minecraft.util.Mth.frac(originY) : net.minecraft.util.Mth.frac(originY));
-			double totalStepsZ = stepSizeZ * (signumZ > 0 ? 1.0D - net.minecraft.util.Mth.frac(originZ) : net.minecraft.util.Mth.frac(originZ));
-
-			while((totalStepsX <= 1.0D || totalStepsY <= 1.0D || totalStepsZ <= 1.0D) && positions.size() != maxBlocks) {
-				if(totalStepsX < totalStepsY) {
-					if(totalStepsX < totalStepsZ) {
-						blockX += signumX;
-						totalStepsX += stepSizeX;
-					} else {
-						blockZ += signumZ;
-						totalStepsZ += stepSizeZ;
-					}
-				} else if(totalStepsY < totalStepsZ) {
-					blockY += signumY;
-					totalStepsY += stepSizeY;
+
+		double originX = origin.x;
+		double originY = origin.y;
+		double originZ = origin.z;
+		int blockX = Mth.floor(originX);
+		int blockY = Mth.floor(originY);
+		int blockZ = Mth.floor(originZ);
+		BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos(blockX, blockY, blockZ);
+		int count = 1;
+		if(!visitor.visit(0, blockPos) || origin.equals(end)) {
+			return count;
+		}
+
+		double lengthX = end.x - originX;
+		double lengthY = end.y - originY;
+		double lengthZ = end.z - originZ;
+		int signumX = Mth.sign(lengthX);
+		int signumY = Mth.sign(lengthY);
+		int signumZ = Mth.sign(lengthZ);
+		double stepSizeX = signumX == 0 ? Double.MAX_VALUE : (double) signumX / lengthX;
+		double stepSizeY = signumY == 0 ? Double.MAX_VALUE : (double) signumY / lengthY;
+		double stepSizeZ = signumZ == 0 ? Double.MAX_VALUE : (double) signumZ / lengthZ;
+		double totalStepsX = stepSizeX * (signumX > 0 ? 1.0D - Mth.frac(originX) : Mth.frac(originX));
+		double totalStepsY = stepSizeY * (signumY > 0 ? 1.0D - Mth.frac(originY) : Mth.frac(originY));
+		double totalStepsZ = stepSizeZ * (signumZ > 0 ? 1.0D - Mth.frac(originZ) : Mth.frac(originZ));
+
+		while((totalStepsX <= 1.0D || totalStepsY <= 1.0D || totalStepsZ <= 1.0D) && count < maxBlocks) {
+			if(totalStepsX < totalStepsY) {
+				if(totalStepsX < totalStepsZ) {
+					blockX += signumX;
+					totalStepsX += stepSizeX;
 				} else {
 					blockZ += signumZ;
 					totalStepsZ += stepSizeZ;
 				}
-				blockPos.set(blockX, blockY, blockZ);
-				positions.add(blockPos.immutable());
+			} else if(totalStepsY < totalStepsZ) {
+				blockY += signumY;
+				totalStepsY += stepSizeY;
+			} else {
+				blockZ += signumZ;
+				totalStepsZ += stepSizeZ;
+			}
+			blockPos.set(blockX, blockY, blockZ);
+			if(!visitor.visit(count++, blockPos)) {
+				break;
 			}
 		}
-		return positions;
+		return count;
+	}
+
+	@FunctionalInterface
+	public interface BlockRayVisitor {
+
+		/**
+		 * @param index how many blocks were visited before this one
+		 * @return whether to keep going along the ray
+		 */
+		boolean visit(int index, BlockPos.MutableBlockPos pos);
+
 	}
 
 }
@@ -0,0 +1,141 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.internal;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundLevelEventPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LevelEvent;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the items dropped by the blocks a spell breaks, so they are spawned together at the focal point
+ * when the cast ends instead of as one item entity per drop. Identical stacks are merged up to their max stack size.
+ * <p>
+ * The block breaking effects sent to the caster are collected too, and only one is sent for each
+ * block state in each chunk section, since the same sound played many times in one tick adds nothing.
+ */
+public final class SpellDropCollector {
+
+	// The collector that takes in the item entities spawned right now, if any
+	@Nullable
+	private static SpellDropCollector capturing;
+
+	private final List<ItemStack> stacks = new ArrayList<>();
+	private final Map<BlockState, LongSet> effectSections = new HashMap<>();
+	private final LongList effectPositions = new LongArrayList();
+	private final List<BlockState> effectStates = new ArrayList<>();
+	@Nullable
+	private ServerPlayer viewer;
+
+	/**
+	 * Runs the action, keeping the items of every item entity it spawns in this collector instead.
+	 */
+	public void capture(Runnable action) {
+		SpellDropCollector previous = capturing;
+		capturing = this;
+		try {
+			action.run();
+		} finally {
+			capturing = previous;
+		}
+	}
+
+	/**
+	 * Takes the items of an entity that is about to join a level, if a collector is capturing and it's a plain item entity.
+	 *
+	 * @return whether the items were taken, in which case the entity must not be added
+	 */
+	public static boolean tryCapture(Entity entity) {
+		if(capturing == null || entity.getClass() != ItemEntity.class || entity.level.isClientSide) {
+			return false;
+		}
+
+		capturing.add(((ItemEntity) entity).getItem());
+		return true;
+	}
+
+	public void add(ItemStack stack) {
+		if(stack.isEmpty()) {
+			return;
+		}
+
+		stack = stack.copy();
+		for(ItemStack existing : stacks) {
+			if(existing.getCount() < existing.getMaxStackSize() && ItemStack.isSameItemSameTags(existing, stack)) {
+				int moved = Math.min(stack.getCount(), existing.getMaxStackSize() - existing.getCount());
+				existing.grow(moved);
+				stack.shrink(moved);
+				if(stack.isEmpty()) {
+					return;
+				}
+			}
+		}
+		stacks.add(stack);
+	}
+
+	/**
+	 * Queues the breaking effect of a block to be sent to the player, unless one for the same state in the same section is queued already.
+	 */
+	public void addBreakEffect(ServerPlayer player, BlockPos pos, BlockState state) {
+		viewer = player;
+		if(effectSections.computeIfAbsent(state, s -> new LongOpenHashSet()).add(SectionPos.asLong(pos))) {
+			effectPositions.add(pos.asLong());
+			effectStates.add(state);
+		}
+	}
+
+	public boolean isEmpty() {
+		return stacks.isEmpty() && effectPositions.isEmpty();
+	}
+
+	/**
+	 * Sends the queued effects and spawns the collected items at the focal point, then starts over.
+	 */
+	public void flush(Entity focalPoint) {
+		if(viewer != null) {
+			for(int i = 0; i < effectPositions.size(); i++) {
+				viewer.connection.send(new ClientboundLevelEventPacket(LevelEvent.PARTICLES_DESTROY_BLOCK,
+						BlockPos.of(effectPositions.getLong(i)), Block.getId(effectStates.get(i)), false));
+			}
+		}
+
+		Level level = focalPoint.getCommandSenderWorld();
+		for(ItemStack stack : stacks) {
+			ItemEntity item = new ItemEntity(level, focalPoint.getX(), focalPoint.getY(), focalPoint.getZ(), stack);
+			item.setDefaultPickUpDelay();
+			level.addFreshEntity(item);
+		}
+
+		stacks.clear();
+		effectSections.clear();
+		effectPositions.clear();
+		effectStates.clear();
+		viewer = null;
+	}
+
+}
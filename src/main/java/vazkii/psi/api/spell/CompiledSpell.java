@@ -97,6 +97,8 @@ public void safeExecute(SpellContext context) {
 				MessageSpellError message = new MessageSpellError("psi.spellerror.position", x, y);
 				MessageRegister.sendToPlayer(message, context.caster);
 			}
+		} finally {
+			context.flushDrops();
 		}
 	}
 
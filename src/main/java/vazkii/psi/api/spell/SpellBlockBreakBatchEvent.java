@@ -0,0 +1,97 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.spell;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.eventbus.api.Event;
+
+import java.util.BitSet;
+
+/**
+ * Posted before a spell breaks or moves many blocks at once, with all of the blocks in one event.
+ * <p>
+ * Listeners that can decide for all the blocks at once, like protection mods, should {@link #deny(int)} the ones
+ * the player may not break and then {@link #setHandled()}. If no listener handles the event, a
+ * {@link net.minecraftforge.event.level.BlockEvent.BreakEvent} is posted for each block like before.
+ * This event has no result and is not cancellable.
+ */
+public class SpellBlockBreakBatchEvent extends Event {
+
+	private final Level level;
+	private final Player player;
+	private final long[] positions;
+	private final BlockState[] states;
+	private final int size;
+	private final BitSet denied = new BitSet();
+	private boolean handled;
+
+	/**
+	 * @param positions the positions, packed with {@link BlockPos#asLong()}
+	 * @param states    the states of the blocks, in the same order
+	 * @param size      how many of the positions are used
+	 */
+	public SpellBlockBreakBatchEvent(Level level, Player player, long[] positions, BlockState[] states, int size) {
+		this.level = level;
+		this.player = player;
+		this.positions = positions;
+		this.states = states;
+		this.size = size;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public BlockPos getPos(int i) {
+		return BlockPos.of(positions[i]);
+	}
+
+	public long getPackedPos(int i) {
+		return positions[i];
+	}
+
+	public BlockState getState(int i) {
+		return states[i];
+	}
+
+	public void deny(int i) {
+		denied.set(i);
+	}
+
+	public boolean isDenied(int i) {
+		return denied.get(i);
+	}
+
+	public BitSet getDenied() {
+		return denied;
+	}
+
+	/**
+	 * Marks that this event answered for every block, so no break events are posted for them.
+	 */
+	public void setHandled() {
+		handled = true;
+	}
+
+	public boolean isHandled() {
+		return handled;
+	}
+
+}
@@ -8,19 +8,28 @@
  */
 package vazkii.psi.api.spell;
 
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.BlockHitResult;
 
 import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.MathHelper;
+import vazkii.psi.api.internal.SpellDropCollector;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.CompiledSpell.Action;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Stack;
@@ -39,6 +48,24 @@ public final class SpellContext {
 	 */
 	public static final double MAX_DISTANCE = 32;
 
+	// Evaluated values are saved by slot, x * GRID_SIZE + y
+	private static final int SLOTS = SpellGrid.GRID_SIZE * SpellGrid.GRID_SIZE;
+
+	private static final String TAG_ACTIONS = "actions";
+	private static final String TAG_NUMBER_SLOTS = "numberSlots";
+	private static final String TAG_NUMBERS = "numbers";
+	private static final String TAG_VECTOR_SLOTS = "vectorSlots";
+	private static final String TAG_VECTORS = "vectors";
+	private static final String TAG_DELAY = "delay";
+	private static final String TAG_STOPPED = "stopped";
+	private static final String TAG_LOOPCAST_INDEX = "loopcastIndex";
+	private static final String TAG_CAST_FROM = "castFrom";
+	private static final String TAG_TOOL = "tool";
+	private static final String TAG_DAMAGE_TAKEN = "damageTaken";
+	private static final String TAG_TARGET_SLOT = "targetSlot";
+	private static final String TAG_SHIFT_TARGET_SLOT = "shiftTargetSlot";
+	private static final String TAG_CUSTOM_TARGET_SLOT = "customTargetSlot";
+
 	/**
 	 * The player casting this spell.
 	 */
@@ -90,6 +117,12 @@ public final class SpellContext {
 	 */
 	public final Map<String, Object> customData = new HashMap<>();
 
+	// Chunks around the focal point, only created when first used. See getChunkCache()
+	private ChunkAccessCache chunkCache;
+
+	// Drops of the blocks broken in the current run of the spell, only created when first used. See getDropCollector()
+	private SpellDropCollector dropCollector;
+
 	// Runtime information, do not mess with =================================================
 	public final Object[][] evaluatedObjects = new Object[SpellGrid.GRID_SIZE][SpellGrid.GRID_SIZE];
 	public Stack<Action> actions = null;
@@ -133,11 +166,198 @@ public SpellContext setSpell(Spell spell) {
 		return this;
 	}
 
+	/**
+	 * Gets the chunks around the focal point, for block lookups that must not load chunks.
+	 * The cache is kept with the context, but forgets its chunks every tick and whenever the focal point moves to another chunk.
+	 */
+	public ChunkAccessCache getChunkCache() {
+		Level level = focalPoint.getCommandSenderWorld();
+		if(chunkCache == null || chunkCache.getLevel() != level) {
+			chunkCache = new ChunkAccessCache(level);
+		}
+		return chunkCache.center(focalPoint.getX(), focalPoint.getZ());
+	}
+
+	/**
+	 * Gets the collector for the drops of the blocks this spell breaks.
+	 * They are spawned at the focal point by {@link #flushDrops()} when the spell stops running, or pauses for a delay.
+	 */
+	public SpellDropCollector getDropCollector() {
+		if(dropCollector == null) {
+			dropCollector = new SpellDropCollector();
+		}
+		return dropCollector;
+	}
+
+	public void flushDrops() {
+		if(dropCollector != null && !dropCollector.isEmpty()) {
+			dropCollector.flush(focalPoint);
+		}
+	}
+
 	public SpellContext setLoopcastIndex(int i) {
 		loopcastIndex = i;
 		return this;
 	}
 
+	/**
+	 * Whether this context can be {@link #reset()} and cast again. Contexts that are waiting on a delay are still in use.
+	 */
+	public boolean canReuse() {
+		return delay <= 0;
+	}
+
+	/**
+	 * Clears everything a cast left behind in this context, so it can be cast again with the same
+	 * caster, focal point and spell without allocating a new one. Only do this to contexts you created
+	 * yourself, and only if they {@link #canReuse() can be reused}.
+	 */
+	public SpellContext reset() {
+		loopcastIndex = 0;
+		tool = ItemStack.EMPTY;
+		positionBroken = null;
+		attackedEntity = null;
+		attackingEntity = null;
+		damageTaken = 0;
+		targetSlot = 1;
+		shiftTargetSlot = true;
+		customTargetSlot = false;
+		customData.clear();
+
+		for(Object[] column : evaluatedObjects) {
+			Arrays.fill(column, null);
+		}
+		actions = null;
+		stopped = false;
+		delay = 0;
+		return this;
+	}
+
+	/**
+	 * Writes the state of this context so the cast can be picked up again after its entity was unloaded.
+	 * This covers which actions are left to run, the delay, and every evaluated value that's a number or a vector.
+	 * Entities, block hits and custom data can't outlive the world they're in, so they aren't written.
+	 */
+	public void writeStateToNBT(CompoundTag cmp) {
+		if(actions != null) {
+			int[] remaining = new int[actions.size()];
+			for(int i = 0; i < remaining.length; i++) {
+				Action action = actions.get(i);
+				remaining[i] = action.piece.x * SpellGrid.GRID_SIZE + action.piece.y;
+			}
+			cmp.putIntArray(TAG_ACTIONS, remaining);
+		}
+
+		ByteArrayList numberSlots = new ByteArrayList();
+		LongArrayList numbers = new LongArrayList();
+		ByteArrayList vectorSlots = new ByteArrayList();
+		LongArrayList vectors = new LongArrayList();
+		for(int i = 0; i < SLOTS; i++) {
+			Object o = evaluatedObjects[i / SpellGrid.GRID_SIZE][i % SpellGrid.GRID_SIZE];
+			if(o instanceof Number) {
+				numberSlots.add((byte) i);
+				numbers.add(Double.doubleToRawLongBits(((Number) o).doubleValue()));
+			} else if(o instanceof Vector3) {
+				Vector3 vec = (Vector3) o;
+				vectorSlots.add((byte) i);
+				vectors.add(Double.doubleToRawLongBits(vec.x));
+				vectors.add(Double.doubleToRawLongBits(vec.y));
+				vectors.add(Double.doubleToRawLongBits(vec.z));
+			}
+		}
+		if(!numberSlots.isEmpty()) {
+			cmp.putByteArray(TAG_NUMBER_SLOTS, numberSlots.toByteArray());
+			cmp.putLongArray(TAG_NUMBERS, numbers.toLongArray());
+		}
+		if(!vectorSlots.isEmpty()) {
+			cmp.putByteArray(TAG_VECTOR_SLOTS, vectorSlots.toByteArray());
+			cmp.putLongArray(TAG_VECTORS, vectors.toLongArray());
+		}
+
+		cmp.putInt(TAG_DELAY, delay);
+		cmp.putBoolean(TAG_STOPPED, stopped);
+		cmp.putInt(TAG_LOOPCAST_INDEX, loopcastIndex);
+		if(castFrom != null) {
+			cmp.putByte(TAG_CAST_FROM, (byte) castFrom.ordinal());
+		}
+		if(!tool.isEmpty()) {
+			cmp.put(TAG_TOOL, tool.save(new CompoundTag()));
+		}
+		cmp.putDouble(TAG_DAMAGE_TAKEN, damageTaken);
+		cmp.putInt(TAG_TARGET_SLOT, targetSlot);
+		cmp.putBoolean(TAG_SHIFT_TARGET_SLOT, shiftTargetSlot);
+		cmp.putBoolean(TAG_CUSTOM_TARGET_SLOT, customTargetSlot);
+	}
+
+	/**
+	 * Reads state written by {@link #writeStateToNBT(CompoundTag)}. The {@link #cspell compiled spell} has to be set first.
+	 *
+	 * @return false if the remaining actions don't match the compiled spell anymore, in which case
+	 *         the context is left to start the spell over
+	 */
+	public boolean readStateFromNBT(CompoundTag cmp) {
+		if(!isValid()) {
+			return false;
+		}
+
+		reset();
+
+		loopcastIndex = cmp.getInt(TAG_LOOPCAST_INDEX);
+		castFrom = cmp.contains(TAG_CAST_FROM) ? InteractionHand.values()[cmp.getByte(TAG_CAST_FROM) % InteractionHand.values().length] : null;
+		if(cmp.contains(TAG_TOOL)) {
+			tool = ItemStack.of(cmp.getCompound(TAG_TOOL));
+		}
+		damageTaken = cmp.getDouble(TAG_DAMAGE_TAKEN);
+		targetSlot = cmp.getInt(TAG_TARGET_SLOT);
+		shiftTargetSlot = cmp.getBoolean(TAG_SHIFT_TARGET_SLOT);
+		customTargetSlot = cmp.getBoolean(TAG_CUSTOM_TARGET_SLOT);
+
+		if(!cmp.contains(TAG_ACTIONS)) {
+			return true;
+		}
+
+		Action[] bySlot = new Action[SLOTS];
+		for(Action action : cspell.actions) {
+			bySlot[action.piece.x * SpellGrid.GRID_SIZE + action.piece.y] = action;
+		}
+
+		Stack<Action> remaining = new Stack<>();
+		for(int slot : cmp.getIntArray(TAG_ACTIONS)) {
+			if(slot < 0 || slot >= bySlot.length || bySlot[slot] == null) {
+				return false;
+			}
+			remaining.push(bySlot[slot]);
+		}
+
+		byte[] numberSlots = cmp.getByteArray(TAG_NUMBER_SLOTS);
+		long[] numbers = cmp.getLongArray(TAG_NUMBERS);
+		for(int i = 0; i < numberSlots.length && i < numbers.length; i++) {
+			int slot = numberSlots[i];
+			if(slot < 0 || slot >= SLOTS) {
+				reset();
+				return false;
+			}
+			evaluatedObjects[slot / SpellGrid.GRID_SIZE][slot % SpellGrid.GRID_SIZE] = Double.longBitsToDouble(numbers[i]);
+		}
+
+		byte[] vectorSlots = cmp.getByteArray(TAG_VECTOR_SLOTS);
+		long[] vectors = cmp.getLongArray(TAG_VECTORS);
+		for(int i = 0; i < vectorSlots.length && i * 3 + 2 < vectors.length; i++) {
+			int slot = vectorSlots[i];
+			if(slot < 0 || slot >= SLOTS) {
+				reset();
+				return false;
+			}
+			evaluatedObjects[slot / SpellGrid.GRID_SIZE][slot % SpellGrid.GRID_SIZE] = new Vector3(Double.longBitsToDouble(vectors[i * 3]),
+					Double.longBitsToDouble(vectors[i * 3 + 1]), Double.longBitsToDouble(vectors[i * 3 + 2]));
+		}
+
+		actions = remaining;
+		delay = cmp.getInt(TAG_DELAY);
+		stopped = cmp.getBoolean(TAG_STOPPED);
+		return true;
+	}
+
 	public boolean isValid() {
 		return cspell != null;
 	}
@@ -180,6 +400,19 @@ public boolean isInRadius(double x, double y, double z) {
 		return MathHelper.pointDistanceSpace(x, y, z, focalPoint.getX(), focalPoint.getY(), focalPoint.getZ()) <= MAX_DISTANCE;
 	}
 
+	/**
+	 * Used to check if a block corner is within this context's radius.
+	 * Same as {@link #isInRadius(Vector3)} on {@link Vector3#fromBlockPos(BlockPos)}, without making the vector.
+	 *
+	 * @see #MAX_DISTANCE
+	 */
+	public boolean isInRadius(int x, int y, int z) {
+		double dx = x - focalPoint.getX();
+		double dy = y - focalPoint.getY();
+		double dz = z - focalPoint.getZ();
+		return dx * dx + dy * dy + dz * dz <= MAX_DISTANCE * MAX_DISTANCE;
+	}
+
 	public void verifyEntity(Entity e) throws SpellRuntimeException {
 		if(e == null) {
 			throw new SpellRuntimeException(SpellRuntimeException.NULL_TARGET);
@@ -57,6 +57,18 @@ public static boolean isBlockPosInRadius(SpellContext context, BlockPos pos) {
 		return context.isInRadius(pos.getX() + .5, pos.getY() + .5, pos.getZ() + .5);
 	}
 
+	/**
+	 * Checks that all the given positions, packed with {@link BlockPos#asLong()}, are in radius
+	 * before any of them are touched, so a trick working on many blocks either changes all of them or none.
+	 */
+	public static void ensureBlocksInRadius(SpellContext context, long[] positions) throws SpellRuntimeException {
+		for(long pos : positions) {
+			if(!context.isInRadius(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos))) {
+				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
+			}
+		}
+	}
+
 	public static double ensurePositiveOrZero(SpellPiece piece, SpellParam<Number> param, double def) throws SpellCompilationException {
 		double val = piece.getParamEvaluationeOrDefault(param, def).doubleValue();
 		if(val < 0) {
@@ -16,9 +16,9 @@
 
 import vazkii.psi.api.PsiAPI;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static vazkii.psi.api.spell.SpellContext.MAX_DISTANCE;
 
@@ -62,30 +62,26 @@ static void performDetonation(Level world, Player player, Entity center, Predica
 	}
 
 	static void performDetonation(Level world, Player player, Entity center, double range, Predicate<Entity> filter) {
-		List<Entity> charges = world.getEntitiesOfClass(Entity.class,
-				center.getBoundingBox().inflate(range),
-				entity -> {
-					if(entity == null) {
-						return false;
-					}
-					return entity.getCapability(PsiAPI.DETONATION_HANDLER_CAPABILITY).map(detonator -> {
-						Vec3 locus = detonator.objectLocus();
-						if(locus == null || locus.distanceToSqr(center.getX(), center.getY(), center.getZ()) > range * range) {
-							return false;
-						}
-						return filter == null || filter.test(entity);
-					}).orElse(false);
-				});
-
-		List<IDetonationHandler> handlers = charges.stream()
-				.map(e -> e.getCapability(PsiAPI.DETONATION_HANDLER_CAPABILITY).orElseThrow(NullPointerException::new))
-				.collect(Collectors.toList());
+		double x = center.getX();
+		double y = center.getY();
+		double z = center.getZ();
+
+		List<IDetonationHandler> handlers = new ArrayList<>();
+		for(Entity entity : PsiAPI.internalHandler.getDetonators(world, center.position(), range)) {
+			if(entity == null) {
+				continue;
+			}
+			entity.getCapability(PsiAPI.DETONATION_HANDLER_CAPABILITY).ifPresent(detonator -> {
+				Vec3 locus = detonator.objectLocus();
+				if(locus != null && locus.distanceToSqr(x, y, z) <= range * range && (filter == null || filter.test(entity))) {
+					handlers.add(detonator);
+				}
+			});
+		}
 
 		if(!MinecraftForge.EVENT_BUS.post(new DetonationEvent(player, center, range, handlers))) {
 			if(!handlers.isEmpty()) {
-				for(IDetonationHandler handler : handlers) {
-					handler.detonate();
-				}
+				PsiAPI.internalHandler.detonate(player, handlers);
 			}
 		}
 	}
@@ -11,6 +11,7 @@
 import com.mojang.blaze3d.vertex.BufferBuilder;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.ParticleStatus;
 import net.minecraft.client.model.geom.builders.LayerDefinition;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.client.renderer.RenderType;
@@ -49,6 +50,7 @@
 import vazkii.psi.client.render.entity.RenderSpellProjectile;
 import vazkii.psi.client.render.tile.RenderTileProgrammer;
 import vazkii.psi.common.block.tile.TileProgrammer;
+import vazkii.psi.common.core.handler.ConfigHandler;
 import vazkii.psi.common.core.proxy.IProxy;
 import vazkii.psi.common.entity.EntitySpellCharge;
 import vazkii.psi.common.entity.EntitySpellCircle;
@@ -167,6 +169,41 @@ public int getColorForColorizer(ItemStack colorizer) {
 		return icc.getColor(colorizer);
 	}
 
+	@Override
+	public int getParticleBudget(double x, double y, double z, int count) {
+		Minecraft mc = Minecraft.getInstance();
+		double factor;
+		ParticleStatus status = mc.options.particles().get();
+		if(status == ParticleStatus.MINIMAL) {
+			factor = 0.25;
+		} else if(status == ParticleStatus.DECREASED) {
+			factor = 0.5;
+		} else {
+			factor = 1;
+		}
+
+		int lodDistance = ConfigHandler.CLIENT.spellParticleDistance.get();
+		if(lodDistance > 0) {
+			double distSq = mc.gameRenderer.getMainCamera().getPosition().distanceToSqr(x, y, z);
+			double quarter = lodDistance / 4.0;
+			if(distSq > lodDistance * lodDistance) {
+				return 0;
+			} else if(distSq > 4 * quarter * quarter) {
+				factor *= 0.25;
+			} else if(distSq > quarter * quarter) {
+				factor *= 0.5;
+			}
+		}
+
+		// Keep the fractional part as a chance, so small emitters don't just vanish
+		double budget = count * factor;
+		int particles = (int) budget;
+		if(Math.random() < budget - particles) {
+			particles++;
+		}
+		return particles;
+	}
+
 	@Override
 	public void sparkleFX(Level world, double x, double y, double z, float r, float g, float b, float motionx, float motiony, float motionz, float size, int m) {
 		if(m == 0) {
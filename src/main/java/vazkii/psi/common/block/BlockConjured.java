@@ -10,8 +10,10 @@
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
@@ -24,6 +26,7 @@
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.state.properties.BooleanProperty;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 import net.minecraft.world.phys.shapes.CollisionContext;
@@ -35,6 +38,8 @@
 import vazkii.psi.api.internal.PsiRenderHelper;
 import vazkii.psi.common.Psi;
 import vazkii.psi.common.block.tile.TileConjured;
+import vazkii.psi.common.core.capability.ConjuredColorPalette;
+import vazkii.psi.common.core.handler.ConjuredColorHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -58,26 +63,57 @@ public BlockConjured(Properties properties) {
 		registerDefaultState(getStateDefinition().any().setValue(LIGHT, false).setValue(SOLID, false).setValue(WATERLOGGED, false).setValue(BLOCK_DOWN, false).setValue(BLOCK_UP, false).setValue(BLOCK_EAST, false).setValue(BLOCK_WEST, false).setValue(BLOCK_NORTH, false).setValue(BLOCK_SOUTH, false));
 	}
 
+	/**
+	 * Sets the colorizer of the conjured block at the position. Conjured blocks keep their colorizer in the
+	 * {@link ConjuredColorPalette} of their chunk instead of a block entity.
+	 */
+	public static void setColorizer(Level world, BlockPos pos, ItemStack colorizer) {
+		LevelChunk chunk = world.getChunkAt(pos);
+		ConjuredColorPalette palette = ConjuredColorPalette.get(chunk);
+		if(palette != null && palette.setColorizer(pos, colorizer)) {
+			chunk.setUnsaved(true);
+			ConjuredColorHandler.markChanged(chunk, pos);
+		}
+	}
+
+	public static ItemStack getColorizer(Level world, BlockPos pos) {
+		LevelChunk chunk = world.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+		ConjuredColorPalette palette = chunk == null ? null : ConjuredColorPalette.get(chunk);
+		ItemStack colorizer = palette == null ? ItemStack.EMPTY : palette.getColorizer(pos);
+		if(!colorizer.isEmpty()) {
+			return colorizer;
+		}
+
+		// Blocks conjured before the palette keep their block entity until their chunk is sent to a player
+		BlockEntity inWorld = world.getBlockEntity(pos);
+		return inWorld instanceof TileConjured ? ((TileConjured) inWorld).colorizer : ItemStack.EMPTY;
+	}
+
 	@Override
 	@OnlyIn(Dist.CLIENT)
 	public void animateTick(BlockState stateIn, Level worldIn, BlockPos pos, RandomSource rand) {
-		BlockEntity inWorld = worldIn.getBlockEntity(pos);
-		if(inWorld instanceof TileConjured) {
-			((TileConjured) inWorld).doParticles();
-		}
+		TileConjured.doParticles(worldIn, pos, getColorizer(worldIn, pos));
 	}
 
 	@Nullable
 	@Override
 	public float[] getBeaconColorMultiplier(BlockState state, LevelReader world, BlockPos pos, BlockPos beaconPos) {
-		BlockEntity inWorld = world.getBlockEntity(pos);
-		if(inWorld instanceof TileConjured) {
-			int color = Psi.proxy.getColorForColorizer(((TileConjured) inWorld).colorizer);
+		if(world instanceof Level) {
+			int color = Psi.proxy.getColorForColorizer(getColorizer((Level) world, pos));
 			return new float[] { PsiRenderHelper.r(color) / 255F, PsiRenderHelper.g(color) / 255F, PsiRenderHelper.b(color) / 255F };
 		}
 		return null;
 	}
 
+	@Override
+	public void onRemove(BlockState state, Level world, BlockPos pos, BlockState newState, boolean isMoving) {
+		if(!state.is(newState.getBlock())) {
+			setColorizer(world, pos, ItemStack.EMPTY);
+		}
+		super.onRemove(state, world, pos, newState, isMoving);
+	}
+
+	// Timed blocks expire through ConjuredBlockHandler now, this is for ticks that were scheduled before that
 	@Override
 	public void tick(BlockState state, ServerLevel world, BlockPos pos, RandomSource random) {
 		world.removeBlock(pos, false);
@@ -165,9 +201,11 @@ public float getShadeBrightness(BlockState state, BlockGetter worldIn, BlockPos
 		return 1.0F;
 	}
 
+	@Nullable
 	@Override
 	public BlockEntity newBlockEntity(@Nonnull BlockPos pos, @Nonnull BlockState state) {
-		return new TileConjured(pos, state);
+		// Only blocks conjured before colors were kept in the palette have a TileConjured, which is loaded from their saved data
+		return null;
 	}
 
 }
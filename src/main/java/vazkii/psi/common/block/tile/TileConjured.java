@@ -13,6 +13,7 @@
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
@@ -42,13 +43,21 @@ public TileConjured(BlockPos pos, BlockState state) {
 	}
 
 	public void doParticles() {
+		doParticles(getLevel(), getBlockPos(), colorizer);
+	}
+
+	/**
+	 * Spawns the particles of a conjured block with the given colorizer. Also used for conjured blocks that
+	 * keep their colorizer in the palette of their chunk and have no block entity.
+	 */
+	public static void doParticles(Level level, BlockPos pos, ItemStack colorizer) {
 		int color = Psi.proxy.getColorForColorizer(colorizer);
 
 		float r = PsiRenderHelper.r(color) / 255F;
 		float g = PsiRenderHelper.g(color) / 255F;
 		float b = PsiRenderHelper.b(color) / 255F;
 
-		BlockState state = getLevel().getBlockState(getBlockPos());
+		BlockState state = level.getBlockState(pos);
 
 		if(state.getBlock() == ModBlocks.conjured && state.getValue(BlockConjured.SOLID)) {
 			// http://cns-alumni.bu.edu/~lavanya/Graphics/cs580/p5/web-page/cube_edges.gif
@@ -74,9 +83,9 @@ public void doParticles() {
 				removeEdges(edges, 0, 4, 8, 9);
 			}
 
-			double x = getBlockPos().getX();
-			double y = getBlockPos().getY();
-			double z = getBlockPos().getZ();
+			double x = pos.getX();
+			double y = pos.getY();
+			double z = pos.getZ();
 
 			makeParticle(edges[0], r, g, b, x + 0, y + 0, z + 0, 0, 0, 1);
 			makeParticle(edges[1], r, g, b, x + 0, y + 0, z + 1, 1, 0, 0);
@@ -98,9 +107,9 @@ public void doParticles() {
 		} else if(Math.random() < 0.5) {
 			float w = 0.15F;
 			float h = 0.05F;
-			double x = getBlockPos().getX() + 0.5 + (Math.random() - 0.5) * w;
-			double y = getBlockPos().getY() + 0.25 + (Math.random() - 0.5) * h;
-			double z = getBlockPos().getZ() + 0.5 + (Math.random() - 0.5) * w;
+			double x = pos.getX() + 0.5 + (Math.random() - 0.5) * w;
+			double y = pos.getY() + 0.25 + (Math.random() - 0.5) * h;
+			double z = pos.getZ() + 0.5 + (Math.random() - 0.5) * w;
 
 			float s = 0.2F + (float) Math.random() * 0.1F;
 			float m = 0.01F + (float) Math.random() * 0.015F;
@@ -109,7 +118,7 @@ public void doParticles() {
 		}
 	}
 
-	public void makeParticle(boolean doit, float r, float g, float b, double xp, double yp, double zp, double xv, double yv, double zv) {
+	public static void makeParticle(boolean doit, float r, float g, float b, double xp, double yp, double zp, double xv, double yv, double zv) {
 		if(doit) {
 			float m = 0.1F;
 			xv *= m;
@@ -120,7 +129,7 @@ public void makeParticle(boolean doit, float r, float g, float b, double xp, dou
 		}
 	}
 
-	public void removeEdges(boolean[] edges, int... posArray) {
+	public static void removeEdges(boolean[] edges, int... posArray) {
 		for(int i : posArray) {
 			edges[i] = false;
 		}
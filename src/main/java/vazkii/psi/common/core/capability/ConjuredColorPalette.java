@@ -0,0 +1,209 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.capability;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2IntMap;
+import it.unimi.dsi.fastutil.shorts.Short2IntOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.LazyOptional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The colorizers of the conjured blocks in a chunk, kept in a small palette per chunk section, so conjured
+ * blocks need neither a block entity nor a block state for each color. Blocks without a colorizer have no entry.
+ */
+public class ConjuredColorPalette implements ICapabilitySerializable<ListTag> {
+
+	public static final Capability<ConjuredColorPalette> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {});
+
+	private static final String TAG_SECTION = "section";
+	private static final String TAG_PALETTE = "palette";
+	private static final String TAG_BLOCKS = "blocks";
+
+	private final Int2ObjectMap<Section> sections = new Int2ObjectOpenHashMap<>();
+	private final LazyOptional<ConjuredColorPalette> holder = LazyOptional.of(() -> this);
+
+	@Nullable
+	public static ConjuredColorPalette get(LevelChunk chunk) {
+		return chunk.getCapability(CAPABILITY).orElse(null);
+	}
+
+	public ItemStack getColorizer(BlockPos pos) {
+		Section section = sections.get(SectionPos.blockToSectionCoord(pos.getY()));
+		return section == null ? ItemStack.EMPTY : section.get(index(pos));
+	}
+
+	/**
+	 * Sets the colorizer of the block at the position, or removes it if the colorizer is empty.
+	 *
+	 * @return whether anything changed
+	 */
+	public boolean setColorizer(BlockPos pos, ItemStack colorizer) {
+		int y = SectionPos.blockToSectionCoord(pos.getY());
+		Section section = sections.get(y);
+
+		if(colorizer.isEmpty()) {
+			if(section == null || !section.remove(index(pos))) {
+				return false;
+			}
+			if(section.blocks.isEmpty()) {
+				sections.remove(y);
+			}
+			return true;
+		}
+
+		if(section == null) {
+			section = new Section();
+			sections.put(y, section);
+		}
+		return section.set(index(pos), colorizer);
+	}
+
+	public boolean isEmpty() {
+		return sections.isEmpty();
+	}
+
+	public void clear() {
+		sections.clear();
+	}
+
+	public void forEach(ChunkPos chunk, BiConsumer<BlockPos, ItemStack> action) {
+		for(Int2ObjectMap.Entry<Section> entry : sections.int2ObjectEntrySet()) {
+			int y = SectionPos.sectionToBlockCoord(entry.getIntKey());
+			Section section = entry.getValue();
+			for(Short2IntMap.Entry block : section.blocks.short2IntEntrySet()) {
+				short index = block.getShortKey();
+				action.accept(new BlockPos(chunk.getBlockX(index & 15), y + (index >> 8 & 15), chunk.getBlockZ(index >> 4 & 15)), section.palette.get(block.getIntValue()));
+			}
+		}
+	}
+
+	private static short index(BlockPos pos) {
+		return (short) ((pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15));
+	}
+
+	@Nonnull
+	@Override
+	public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> capability, @Nullable Direction side) {
+		return CAPABILITY.orEmpty(capability, holder);
+	}
+
+	@Override
+	public ListTag serializeNBT() {
+		ListTag list = new ListTag();
+		for(Int2ObjectMap.Entry<Section> entry : sections.int2ObjectEntrySet()) {
+			Section section = entry.getValue();
+
+			// Palette entries no block uses anymore are dropped here
+			int[] remap = new int[section.palette.size()];
+			Arrays.fill(remap, -1);
+			ListTag palette = new ListTag();
+			int[] blocks = new int[section.blocks.size()];
+			int i = 0;
+			for(Short2IntMap.Entry block : section.blocks.short2IntEntrySet()) {
+				int color = block.getIntValue();
+				if(remap[color] < 0) {
+					remap[color] = palette.size();
+					palette.add(section.palette.get(color).save(new CompoundTag()));
+				}
+				blocks[i++] = block.getShortKey() << 16 | remap[color];
+			}
+
+			CompoundTag cmp = new CompoundTag();
+			cmp.putInt(TAG_SECTION, entry.getIntKey());
+			cmp.put(TAG_PALETTE, palette);
+			cmp.put(TAG_BLOCKS, new IntArrayTag(blocks));
+			list.add(cmp);
+		}
+		return list;
+	}
+
+	@Override
+	public void deserializeNBT(ListTag list) {
+		sections.clear();
+		for(int i = 0; i < list.size(); i++) {
+			CompoundTag cmp = list.getCompound(i);
+			Section section = new Section();
+
+			ListTag palette = cmp.getList(TAG_PALETTE, Tag.TAG_COMPOUND);
+			for(int j = 0; j < palette.size(); j++) {
+				section.palette.add(ItemStack.of(palette.getCompound(j)));
+			}
+			for(int block : cmp.getIntArray(TAG_BLOCKS)) {
+				int color = block & 0xFFFF;
+				if(color < section.palette.size()) {
+					section.blocks.put((short) (block >>> 16), color);
+				}
+			}
+
+			if(!section.blocks.isEmpty()) {
+				sections.put(cmp.getInt(TAG_SECTION), section);
+			}
+		}
+	}
+
+	private static class Section {
+
+		private final List<ItemStack> palette = new ArrayList<>();
+		private final Short2IntMap blocks = new Short2IntOpenHashMap();
+
+		private Section() {
+			blocks.defaultReturnValue(-1);
+		}
+
+		private ItemStack get(short index) {
+			int color = blocks.get(index);
+			return color < 0 ? ItemStack.EMPTY : palette.get(color);
+		}
+
+		private boolean set(short index, ItemStack colorizer) {
+			int color = -1;
+			for(int i = 0; i < palette.size(); i++) {
+				if(ItemStack.isSameItemSameTags(palette.get(i), colorizer)) {
+					color = i;
+					break;
+				}
+			}
+			if(color < 0) {
+				color = palette.size();
+				palette.add(colorizer.copy());
+			}
+			return blocks.put(index, color) != color;
+		}
+
+		private boolean remove(short index) {
+			return blocks.remove(index) >= 0;
+		}
+
+	}
+
+}
@@ -22,6 +22,7 @@ public static class Client {
 		public final ForgeConfigSpec.BooleanValue pauseGameInProgrammer;
 		public final ForgeConfigSpec.IntValue maxPsiBarScale;
 		public final ForgeConfigSpec.BooleanValue changeGridCoordinatesToLetterNumber;
+		public final ForgeConfigSpec.IntValue spellParticleDistance;
 
 		public Client(ForgeConfigSpec.Builder builder) {
 			useShaders = builder.comment("Controls whether Psi's shaders are used. If you're using the GLSL Shaders mod and are having graphical troubles with Psi stuff, you may want to turn this off.")
@@ -41,6 +42,9 @@ public Client(ForgeConfigSpec.Builder builder) {
 
 			changeGridCoordinatesToLetterNumber = builder.comment("Controls whether or not the Programmer will display the coordinates as a pair of two numbers or as a letter and a number")
 					.define("client.changeGridCoordinatesToLetterNumber", false);
+
+			spellParticleDistance = builder.comment("The distance in blocks after which spell projectiles, spell circles and loopcasting players stop emitting particles. They emit fewer particles the farther they are, and the vanilla particle setting is respected as well. Set to 0 to always emit every particle.")
+					.defineInRange("client.spellParticleDistance", 64, 0, 512);
 		}
 
 	}
@@ -59,6 +63,9 @@ public static class Common {
 		public final ForgeConfigSpec.BooleanValue magiPsiClientSide;
 		public final ForgeConfigSpec.IntValue spellCacheSize;
 		public final ForgeConfigSpec.IntValue cadHarvestLevel;
+		public final ForgeConfigSpec.BooleanValue batchedRegen;
+		public final ForgeConfigSpec.IntValue circlePulsesPerTick;
+		public final ForgeConfigSpec.BooleanValue aggregateSpellDrops;
 
 		public Common(ForgeConfigSpec.Builder builder) {
 
@@ -71,6 +78,15 @@ public Common(ForgeConfigSpec.Builder builder) {
 			cadHarvestLevel = builder.comment("The harvest level of a CAD for the purposes of block breaking spells. Defaults to 3 (diamond level)")
 					.defineInRange("common.cadHarvestLevel", 3, 0, 255);
 
+			batchedRegen = builder.comment("Set this to true to regenerate Psi in one pass per dimension instead of during each player's tick. Players at full Psi with a full CAD battery are skipped entirely in this mode. Can help on servers with many players.")
+					.define("common.batchedRegen", false);
+
+			circlePulsesPerTick = builder.comment("The maximum amount of Spell Circle casts run per dimension per tick. Casts over the limit are delayed to the next tick. Set to 0 for no limit.")
+					.defineInRange("common.circlePulsesPerTick", 0, 0, Integer.MAX_VALUE);
+
+			aggregateSpellDrops = builder.comment("Set this to true to collect the drops of every block a spell breaks and spawn them merged at the spell's focal point when it finishes, instead of where each block was. Also sends fewer block breaking effects to the caster.")
+					.define("common.aggregateSpellDrops", false);
+
 		}
 	}
 
@@ -0,0 +1,152 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.common.block.BlockConjured;
+import vazkii.psi.common.block.base.ModBlocks;
+import vazkii.psi.common.lib.LibMisc;
+
+/**
+ * Removes timed conjured blocks, in batches of all blocks that expire on the same tick, instead of every block
+ * having its own scheduled tick. Blocks of a batch are removed without updating each other, only the blocks
+ * around the batch get neighbor and shape updates, so a big platform expiring doesn't make its blocks
+ * recompute their connections over and over while it's taken apart.
+ * <p>
+ * Expiry times are saved with the level. Blocks in chunks that aren't ticking when they expire are tried again a bit later.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class ConjuredBlockHandler {
+
+	private static final String DATA_NAME = LibMisc.MOD_ID + "_conjured_expiry";
+	private static final int RETRY_DELAY = 20;
+
+	public static void scheduleExpiry(ServerLevel level, BlockPos pos, int delay) {
+		getData(level).add(level.getGameTime() + delay, pos.asLong());
+	}
+
+	@SubscribeEvent
+	public static void onLevelTick(TickEvent.LevelTickEvent event) {
+		if(event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel) {
+			ServerLevel level = (ServerLevel) event.level;
+			ExpiryData data = getData(level);
+			long now = level.getGameTime();
+
+			while(!data.expiries.isEmpty() && data.expiries.firstLongKey() <= now) {
+				LongArrayList batch = data.expiries.remove(data.expiries.firstLongKey());
+				data.setDirty();
+				expire(level, data, batch, now);
+			}
+		}
+	}
+
+	private static ExpiryData getData(ServerLevel level) {
+		return level.getDataStorage().computeIfAbsent(ExpiryData::load, ExpiryData::new, DATA_NAME);
+	}
+
+	private static void expire(ServerLevel level, ExpiryData data, LongArrayList batch, long now) {
+		LongSet removed = new LongOpenHashSet(batch.size());
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+		for(int i = 0; i < batch.size(); i++) {
+			long packed = batch.getLong(i);
+			pos.set(packed);
+			if(!level.shouldTickBlocksAt(ChunkPos.asLong(pos))) {
+				data.add(now + RETRY_DELAY, packed);
+				continue;
+			}
+
+			BlockState state = level.getBlockState(pos);
+			if(state.getBlock() instanceof BlockConjured) {
+				// Update the clients, but neither the neighbors nor their shapes yet
+				level.setBlock(pos, state.getFluidState().createLegacyBlock(), Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+				removed.add(packed);
+			}
+		}
+
+		BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+		for(long packed : removed) {
+			pos.set(packed);
+			BlockState state = level.getBlockState(pos);
+
+			// Same as the updates Level.markAndNotifyBlock would have done, minus the ones to the rest of the batch
+			for(Direction side : Direction.values()) {
+				neighbor.setWithOffset(pos, side);
+				if(removed.contains(neighbor.asLong())) {
+					continue;
+				}
+
+				level.neighborChanged(neighbor, ModBlocks.conjured, pos);
+				BlockState neighborState = level.getBlockState(neighbor);
+				BlockState updated = neighborState.updateShape(side.getOpposite(), state, level, neighbor, pos);
+				Block.updateOrDestroy(neighborState, updated, level, neighbor, Block.UPDATE_ALL);
+			}
+		}
+	}
+
+	private static class ExpiryData extends SavedData {
+
+		private static final String TAG_EXPIRIES = "expiries";
+		private static final String TAG_TIME = "time";
+		private static final String TAG_POSITIONS = "positions";
+
+		private final Long2ObjectSortedMap<LongArrayList> expiries = new Long2ObjectRBTreeMap<>();
+
+		private void add(long time, long pos) {
+			expiries.computeIfAbsent(time, t -> new LongArrayList()).add(pos);
+			setDirty();
+		}
+
+		private static ExpiryData load(CompoundTag cmp) {
+			ExpiryData data = new ExpiryData();
+			ListTag list = cmp.getList(TAG_EXPIRIES, Tag.TAG_COMPOUND);
+			for(int i = 0; i < list.size(); i++) {
+				CompoundTag entry = list.getCompound(i);
+				data.expiries.put(entry.getLong(TAG_TIME), new LongArrayList(entry.getLongArray(TAG_POSITIONS)));
+			}
+			return data;
+		}
+
+		@Override
+		public CompoundTag save(CompoundTag cmp) {
+			ListTag list = new ListTag();
+			for(Long2ObjectMap.Entry<LongArrayList> entry : expiries.long2ObjectEntrySet()) {
+				CompoundTag tag = new CompoundTag();
+				tag.putLong(TAG_TIME, entry.getLongKey());
+				tag.put(TAG_POSITIONS, new LongArrayTag(entry.getValue().toLongArray()));
+				list.add(tag);
+			}
+			cmp.put(TAG_EXPIRIES, list);
+			return cmp;
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkWatchEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+
+import vazkii.psi.common.block.tile.TileConjured;
+import vazkii.psi.common.core.capability.ConjuredColorPalette;
+import vazkii.psi.common.lib.LibMisc;
+import vazkii.psi.common.network.MessageRegister;
+import vazkii.psi.common.network.message.MessageConjuredColors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the {@link ConjuredColorPalette} of a chunk to the players that start watching it, and the colors that
+ * changed to the players watching a chunk, once per tick for each chunk, so conjuring or removing a lot of blocks
+ * at once sends one message per chunk.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class ConjuredColorHandler {
+
+	private static final Map<LevelChunk, LongSet> changes = new HashMap<>();
+
+	public static void markChanged(LevelChunk chunk, BlockPos pos) {
+		if(!chunk.getLevel().isClientSide) {
+			changes.computeIfAbsent(chunk, c -> new LongOpenHashSet()).add(pos.asLong());
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+		LevelChunk chunk = event.getLevel().getChunkSource().getChunkNow(event.getPos().x, event.getPos().z);
+		ConjuredColorPalette palette = chunk == null ? null : ConjuredColorPalette.get(chunk);
+		if(palette == null) {
+			return;
+		}
+
+		// Blocks conjured before their colors were kept in the palette still have a block entity, which the client doesn't create anymore
+		List<BlockPos> legacy = new ArrayList<>();
+		for(BlockEntity tile : chunk.getBlockEntities().values()) {
+			if(tile instanceof TileConjured) {
+				palette.setColorizer(tile.getBlockPos(), ((TileConjured) tile).colorizer);
+				legacy.add(tile.getBlockPos());
+			}
+		}
+		if(!legacy.isEmpty()) {
+			legacy.forEach(chunk::removeBlockEntity);
+			chunk.setUnsaved(true);
+		}
+
+		if(!palette.isEmpty()) {
+			MessageConjuredColors message = new MessageConjuredColors(event.getPos(), true);
+			palette.forEach(event.getPos(), message::add);
+			MessageRegister.sendToPlayer(message, event.getPlayer());
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLevelTick(TickEvent.LevelTickEvent event) {
+		if(event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel) || changes.isEmpty()) {
+			return;
+		}
+
+		Iterator<Map.Entry<LevelChunk, LongSet>> iterator = changes.entrySet().iterator();
+		while(iterator.hasNext()) {
+			Map.Entry<LevelChunk, LongSet> entry = iterator.next();
+			LevelChunk chunk = entry.getKey();
+			if(chunk.getLevel() != event.level) {
+				continue;
+			}
+			iterator.remove();
+
+			ConjuredColorPalette palette = ConjuredColorPalette.get(chunk);
+			if(palette != null) {
+				MessageConjuredColors message = new MessageConjuredColors(chunk.getPos(), false);
+				for(long packed : entry.getValue()) {
+					BlockPos pos = BlockPos.of(packed);
+					message.add(pos, palette.getColorizer(pos));
+				}
+				MessageRegister.HANDLER.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), message);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		changes.keySet().removeIf(chunk -> chunk.getLevel() == event.getLevel());
+	}
+
+}
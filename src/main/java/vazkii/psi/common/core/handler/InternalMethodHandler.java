@@ -16,8 +16,11 @@
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
@@ -28,11 +31,14 @@
 import vazkii.psi.api.spell.ISpellCompiler;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.detonator.IDetonationHandler;
 import vazkii.psi.client.gui.GuiProgrammer;
+import vazkii.psi.common.entity.EntitySpellCharge;
 import vazkii.psi.common.item.ItemCAD;
 import vazkii.psi.common.spell.SpellCache;
 import vazkii.psi.common.spell.SpellCompiler;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public final class InternalMethodHandler implements IInternalMethodHandler {
@@ -97,4 +103,25 @@ public ItemStack createDefaultCAD(List<ItemStack> components) {
 	public ItemStack createCAD(ItemStack base, List<ItemStack> components) {
 		return ItemCAD.makeCAD(base, components);
 	}
+
+	@Override
+	public List<Entity> getDetonators(Level level, Vec3 center, double range) {
+		return SpatialIndexHandler.getDetonators(level, center, range);
+	}
+
+	@Override
+	public void detonate(Player player, List<IDetonationHandler> handlers) {
+		List<EntitySpellCharge> charges = new ArrayList<>();
+		for(IDetonationHandler handler : handlers) {
+			if(handler instanceof EntitySpellCharge) {
+				charges.add((EntitySpellCharge) handler);
+			} else {
+				handler.detonate();
+			}
+		}
+
+		if(!charges.isEmpty()) {
+			EntitySpellCharge.detonateAll(player, charges);
+		}
+	}
 }
@@ -24,9 +24,13 @@
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
@@ -34,10 +38,14 @@
 import net.minecraftforge.client.event.RenderLevelStageEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
 import net.minecraftforge.event.entity.living.LivingEvent;
 import net.minecraftforge.event.entity.living.LivingEvent.LivingJumpEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
+import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -52,6 +60,7 @@
 import vazkii.psi.api.internal.IPlayerData;
 import vazkii.psi.api.internal.PsiRenderHelper;
 import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.ISpellAcceptor;
 import vazkii.psi.api.spell.LoopcastEndEvent;
@@ -76,6 +85,7 @@
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -93,6 +103,10 @@ public class PlayerDataHandler {
 
 	public static final DamageSource damageSourceOverload = new DamageSource("psi-overload").bypassArmor().bypassMagic();
 
+	// Psi itself listens to armor events once, see EventHandler.onPsiArmorEvent, and never to regen events
+	private static final ListenerCheck armorEventListeners = new ListenerCheck(1);
+	private static final ListenerCheck regenEventListeners = new ListenerCheck(0);
+
 	@Nonnull
 	public static PlayerData get(Player player) {
 		if(player == null) {
@@ -127,6 +141,26 @@ public static CompoundTag getDataCompoundForPlayer(Player player) {
 		return persistentData.getCompound(DATA_TAG);
 	}
 
+	/**
+	 * Gets the delayed contexts waiting to resume with the given entity as their focal point.
+	 */
+	public static List<SpellContext> getDelayedContexts(Entity focalPoint) {
+		List<SpellContext> contexts = new ArrayList<>();
+		for(SpellContext context : delayedContexts) {
+			if(context.focalPoint == focalPoint) {
+				contexts.add(context);
+			}
+		}
+		return contexts;
+	}
+
+	/**
+	 * Drops the delayed contexts of an entity that got unloaded. The entity saved them and resumes them when it loads again.
+	 */
+	public static void removeDelayedContexts(Entity focalPoint) {
+		delayedContexts.removeIf(context -> context.focalPoint == focalPoint);
+	}
+
 	@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
 	public static class EventHandler {
 
@@ -146,6 +180,17 @@ public static void onServerTick(TickEvent.ServerTickEvent event) {
 			}
 		}
 
+		@SubscribeEvent
+		public static void onLevelTick(TickEvent.LevelTickEvent event) {
+			if(event.phase == TickEvent.Phase.END && !event.level.isClientSide && ConfigHandler.COMMON.batchedRegen.get()) {
+				for(Player player : event.level.players()) {
+					if(!player.isSpectator()) {
+						PlayerDataHandler.get(player).tickRegen();
+					}
+				}
+			}
+		}
+
 		@SubscribeEvent
 		public static void onPlayerTick(LivingEvent.LivingTickEvent event) {
 			if(event.getEntity() instanceof Player && !event.getEntity().isSpectator()) {
@@ -156,8 +201,14 @@ public static void onPlayerTick(LivingEvent.LivingTickEvent event) {
 					((ICAD) cadStack.getItem()).incrementTime(cadStack);
 				}
 
-				PsiArmorEvent.post(new PsiArmorEvent(player, PsiArmorEvent.TICK));
-				PlayerDataHandler.get(player).tick();
+				PlayerData data = PlayerDataHandler.get(player);
+				PsiArmorEvent tick = new PsiArmorEvent(player, PsiArmorEvent.TICK);
+				if(armorEventListeners.hasOthers(player.level, tick)) {
+					PsiArmorEvent.post(tick);
+				} else if(data.hasArmorListener(PsiArmorEvent.TICK)) {
+					PsiArmorEvent.dispatch(tick, data::dispatchArmorEvent);
+				}
+				data.tick();
 			}
 		}
 
@@ -202,15 +253,26 @@ public static void onPsiArmorEvent(PsiArmorEvent event) {
 				return;
 			}
 
-			for(int i = 0; i < 4; i++) {
-				ItemStack armor = event.getEntity().getInventory().armor.get(i);
-				if(!armor.isEmpty() && armor.getItem() instanceof IPsiEventArmor) {
-					IPsiEventArmor handler = (IPsiEventArmor) armor.getItem();
-					handler.onEvent(armor, event);
-				}
+			get(event.getEntity()).dispatchArmorEvent(event);
+		}
+
+		@SubscribeEvent
+		public static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+			if(event.getEntity() instanceof Player && event.getSlot().getType() == EquipmentSlot.Type.ARMOR) {
+				get((Player) event.getEntity()).markArmorDirty();
 			}
 		}
 
+		@SubscribeEvent
+		public static void onItemPickup(PlayerEvent.ItemPickupEvent event) {
+			get(event.getEntity()).markCADDirty();
+		}
+
+		@SubscribeEvent
+		public static void onContainerClose(PlayerContainerEvent.Close event) {
+			get(event.getEntity()).markCADDirty();
+		}
+
 		@SubscribeEvent
 		public static void onChangeDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
 			get(event.getEntity()).eidosChangelog.clear();
@@ -272,7 +334,12 @@ public static class PlayerData implements IPlayerData {
 
 		public boolean loopcasting = false;
 		public InteractionHand loopcastHand = null;
-		public ItemStack lastTickLoopcastStack;
+		// Identity of the loopcast, snapshotted on its first tick
+		public Item loopcastItem;
+		public int loopcastSlot;
+		public int loopcastBulletHash;
+		// Reused by every loopcast iteration that doesn't find the last one still delayed
+		private SpellContext loopcastContext;
 
 		public int loopcastTime = 1;
 		public int loopcastAmount = 0;
@@ -292,6 +359,16 @@ public static class PlayerData implements IPlayerData {
 
 		// Exosuit Event Stuff
 		private boolean lowLight, underwater, lowHp;
+		private final ItemStack[] lastArmor = new ItemStack[4];
+		private final Map<String, Integer> armorListeners = new HashMap<>();
+		private boolean armorDirty = true;
+
+		// CAD lookup cache
+		private int cadSlot = -1;
+		private ItemStack cadStack = ItemStack.EMPTY;
+		private int cadInventoryVersion = -1;
+		private int cadCheckTime;
+		private boolean cadDirty = true;
 
 		public boolean deductTick;
 
@@ -340,10 +417,10 @@ public void tick() {
 				int overflow = cad.getStatValue(cadStack, EnumCADStat.OVERFLOW);
 				if(overflow == -1) {
 					availablePsi = max;
-				} else {
+				} else if(!isRegenBatched()) {
 					applyRegen(player, max, cadStack);
 				}
-			} else {
+			} else if(!isRegenBatched()) {
 				applyRegen(player, max, cadStack);
 			}
 
@@ -376,41 +453,26 @@ public void tick() {
 						break loopcast;
 					}
 
-					if(lastTickLoopcastStack != null) {
-						if(!ItemStack.isSame(lastTickLoopcastStack, stackInHand) ||
-								!ISocketable.isSocketable(lastTickLoopcastStack)) {
-							stopLoopcast();
-							break loopcast;
-						} else {
-							ISocketable lastTickItem = ISocketable.socketable(lastTickLoopcastStack);
-							ISocketable thisTickItem = ISocketable.socketable(stackInHand);
-
-							int lastSlot = lastTickItem.getSelectedSlot();
-							int thisSlot = thisTickItem.getSelectedSlot();
-							if(lastSlot != thisSlot) {
-								stopLoopcast();
-								break loopcast;
-							}
+					ISocketable socketable = ISocketable.socketable(stackInHand);
 
-							ItemStack lastTick = lastTickItem.getBulletInSocket(lastSlot);
-							ItemStack thisTick = thisTickItem.getBulletInSocket(thisSlot);
-							if(!ItemStack.matches(lastTick, thisTick)) {
-								stopLoopcast();
-								break loopcast;
-							}
-						}
+					if(loopcastItem == null) {
+						snapshotLoopcast(stackInHand);
+					} else if(stackInHand.getItem() != loopcastItem
+							|| socketable.getSelectedSlot() != loopcastSlot
+							|| socketable.getSocketContentHash(loopcastSlot) != loopcastBulletHash) {
+						stopLoopcast();
+						break loopcast;
 					}
 
-					lastTickLoopcastStack = stackInHand.copy();
-
-					ISocketable socketable = ISocketable.socketable(stackInHand);
-
-					for(int i = 0; i < 5; i++) {
-						double x = player.getX() + (Math.random() - 0.5) * 2.1 * player.getBbWidth();
-						double y = player.getY() - player.getMyRidingOffset();
-						double z = player.getZ() + (Math.random() - 0.5) * 2.1 * player.getBbWidth();
-						float grav = -0.15F - (float) Math.random() * 0.03F;
-						Psi.proxy.sparkleFX(x, y, z, r, g, b, grav, 0.25F, 15);
+					if(player.level.isClientSide) {
+						int particles = Psi.proxy.getParticleBudget(player.getX(), player.getY(), player.getZ(), 5);
+						for(int i = 0; i < particles; i++) {
+							double x = player.getX() + (Math.random() - 0.5) * 2.1 * player.getBbWidth();
+							double y = player.getY() - player.getMyRidingOffset();
+							double z = player.getZ() + (Math.random() - 0.5) * 2.1 * player.getBbWidth();
+							float grav = -0.15F - (float) Math.random() * 0.03F;
+							Psi.proxy.sparkleFX(x, y, z, r, g, b, grav, 0.25F, 15);
+						}
 					}
 
 					if(loopcastTime > 0 && loopcastTime % 5 == 0) {
@@ -422,7 +484,7 @@ public void tick() {
 
 						ISpellAcceptor spellContainer = ISpellAcceptor.acceptor(bullet);
 						Spell spell = spellContainer.getSpell();
-						SpellContext context = new SpellContext().setPlayer(player).setSpell(spell).setLoopcastIndex(loopcastAmount + 1);
+						SpellContext context = nextLoopcastContext(player, spell).setLoopcastIndex(loopcastAmount + 1);
 						context.castFrom = loopcastHand;
 						if(context.isValid()) {
 							if(context.cspell.metadata.evaluateAgainst(cadStack)) {
@@ -509,7 +571,8 @@ public void tick() {
 						}
 
 						if(player.level.isClientSide) {
-							for(int i = 0; i < 5; i++) {
+							int particles = Psi.proxy.getParticleBudget(player.getX(), player.getY(), player.getZ(), 5);
+							for(int i = 0; i < particles; i++) {
 								double spread = 0.6;
 
 								double x = player.getX() + (Math.random() - 0.5) * spread;
@@ -571,10 +634,43 @@ public void tick() {
 			lastDimension = dimension;
 		}
 
+		private boolean isRegenBatched() {
+			return !client && ConfigHandler.COMMON.batchedRegen.get();
+		}
+
+		/**
+		 * Regen step for the batched pass. Players with nothing left to regenerate are skipped.
+		 */
+		public void tickRegen() {
+			Player player = playerWR.get();
+			if(player == null) {
+				return;
+			}
+
+			int max = getTotalPsi();
+			ItemStack cadStack = getCAD();
+			int cadPsi = 0;
+			int cadCapacity = 0;
+			if(!cadStack.isEmpty()) {
+				ICAD cad = (ICAD) cadStack.getItem();
+				cadCapacity = cad.getStatValue(cadStack, EnumCADStat.OVERFLOW);
+				if(cadCapacity == -1) {
+					return; // Handled in tick()
+				}
+				cadPsi = cad.getStoredPsi(cadStack);
+			}
+
+			if(availablePsi >= max && cadPsi >= cadCapacity && regenCooldown == 0 && !overflowed) {
+				return;
+			}
+
+			applyRegen(player, max, cadStack);
+		}
+
 		private void applyRegen(Player player, int max, ItemStack cadStack) {
 			RegenPsiEvent event = new RegenPsiEvent(player, this, cadStack);
 
-			if(!MinecraftForge.EVENT_BUS.post(event)) {
+			if(!regenEventListeners.hasOthers(player.level, event) || !MinecraftForge.EVENT_BUS.post(event)) {
 				if(!cadStack.isEmpty()) {
 					ICAD cad = (ICAD) cadStack.getItem();
 					cad.regenPsi(cadStack, event.getCadRegen());
@@ -610,6 +706,17 @@ private void applyRegen(Player player, int max, ItemStack cadStack) {
 			}
 		}
 
+		private SpellContext nextLoopcastContext(Player player, Spell spell) {
+			CompiledSpell cspell = PsiAPI.internalHandler.getSpellCache().getCompiledSpell(spell);
+			SpellContext context = loopcastContext;
+			if(context == null || context.caster != player || context.cspell != cspell || !context.canReuse()) {
+				context = loopcastContext = new SpellContext().setPlayer(player).setCompiledSpell(cspell);
+			} else {
+				context.reset().setFocalPoint(player);
+			}
+			return context;
+		}
+
 		public void stopLoopcast() {
 			Player player = playerWR.get();
 
@@ -619,8 +726,9 @@ public void stopLoopcast() {
 			}
 			loopcasting = false;
 
-			lastTickLoopcastStack = null;
+			loopcastItem = null;
 			loopcastHand = null;
+			loopcastContext = null;
 
 			loopcastTime = 1;
 			loopcastAmount = 0;
@@ -630,6 +738,70 @@ public void stopLoopcast() {
 			}
 		}
 
+		/**
+		 * Bitmask of the armor slots whose stacks listen to the given event type.
+		 * Recomputed lazily whenever the worn armor changes.
+		 */
+		private int getArmorListeners(String type) {
+			Player player = playerWR.get();
+			if(player == null) {
+				return 0;
+			}
+
+			for(int i = 0; i < 4; i++) {
+				ItemStack armor = player.getInventory().armor.get(i);
+				if(armor != lastArmor[i]) {
+					lastArmor[i] = armor;
+					armorDirty = true;
+				}
+			}
+
+			if(armorDirty) {
+				armorListeners.clear();
+				armorDirty = false;
+			}
+
+			return armorListeners.computeIfAbsent(type, t -> {
+				int mask = 0;
+				for(int i = 0; i < 4; i++) {
+					ItemStack armor = lastArmor[i];
+					if(!armor.isEmpty() && armor.getItem() instanceof IPsiEventArmor && ((IPsiEventArmor) armor.getItem()).listensTo(armor, t)) {
+						mask |= 1 << i;
+					}
+				}
+				return mask;
+			});
+		}
+
+		public boolean hasArmorListener(String type) {
+			return getArmorListeners(type) != 0;
+		}
+
+		public void markArmorDirty() {
+			armorDirty = true;
+		}
+
+		public void dispatchArmorEvent(PsiArmorEvent event) {
+			int mask = getArmorListeners(event.type);
+			for(int i = 0; i < 4; i++) {
+				if((mask & 1 << i) != 0) {
+					ItemStack armor = lastArmor[i];
+					((IPsiEventArmor) armor.getItem()).onEvent(armor, event);
+				}
+			}
+		}
+
+		/**
+		 * Remembers which item, socket and bullet the current loopcast is running from.
+		 * The loopcast stops as soon as any of them changes, unless the snapshot is retaken.
+		 */
+		public void snapshotLoopcast(ItemStack stack) {
+			ISocketable socketable = ISocketable.socketable(stack);
+			loopcastItem = stack.getItem();
+			loopcastSlot = socketable.getSelectedSlot();
+			loopcastBulletHash = socketable.getSocketContentHash(loopcastSlot);
+		}
+
 		public int calculateDamageDeduction(float amount) {
 			return (int) (getTotalPsi() * 0.02 * amount);
 		}
@@ -643,7 +815,38 @@ public void damage(float amount) {
 		}
 
 		public ItemStack getCAD() {
-			return PsiAPI.getPlayerCAD(playerWR.get());
+			int slot = getCADSlot();
+			if(slot == -1) {
+				return ItemStack.EMPTY;
+			}
+
+			return playerWR.get().getInventory().getItem(slot);
+		}
+
+		@Override
+		public int getCADSlot() {
+			Player player = playerWR.get();
+			if(player == null) {
+				return -1;
+			}
+
+			// Inventory changes that bypass the change counter and the pickup/container events (e.g. /give)
+			// are caught by the stack identity check or, at worst, by the rescan every second.
+			Inventory inventory = player.getInventory();
+			if(cadDirty || inventory.getTimesChanged() != cadInventoryVersion || player.tickCount - cadCheckTime >= 20 || player.tickCount < cadCheckTime
+					|| (cadSlot != -1 && (inventory.getItem(cadSlot) != cadStack || cadStack.isEmpty()))) {
+				cadSlot = PsiAPI.findPlayerCADSlot(player);
+				cadStack = cadSlot == -1 ? ItemStack.EMPTY : inventory.getItem(cadSlot);
+				cadInventoryVersion = inventory.getTimesChanged();
+				cadCheckTime = player.tickCount;
+				cadDirty = false;
+			}
+
+			return cadSlot;
+		}
+
+		public void markCADDirty() {
+			cadDirty = true;
 		}
 
 		public void deductPsi(int psi, int cd, boolean sync) {
@@ -879,7 +1082,7 @@ public void render(Player player, float partTicks, PoseStack ms) {
 			}
 
 			int color = ICADColorizer.DEFAULT_SPELL_COLOR;
-			ItemStack cad = PsiAPI.getPlayerCAD(playerWR.get());
+			ItemStack cad = getCAD();
 			if(!cad.isEmpty() && cad.getItem() instanceof ICAD) {
 				ICAD icad = (ICAD) cad.getItem();
 				color = icad.getSpellColor(cad);
@@ -925,4 +1128,39 @@ public float getPercentile(float partTicks) {
 		}
 
 	}
+
+	/**
+	 * Whether anything besides Psi listens to an event on the event bus, so frequent events can skip the bus when
+	 * nothing does. A probe event is used to walk the bus's listeners without calling any of them.
+	 * The answer is looked up at most once per tick on each side.
+	 */
+	private static class ListenerCheck {
+
+		private final int ownListeners;
+		// Index 1 is the client
+		private final long[] checkedAt = { -1, -1 };
+		private final boolean[] others = new boolean[2];
+
+		private ListenerCheck(int ownListeners) {
+			this.ownListeners = ownListeners;
+		}
+
+		private boolean hasOthers(Level level, Event probe) {
+			int side = level.isClientSide ? 1 : 0;
+			long time = level.getGameTime();
+			if(checkedAt[side] != time) {
+				int[] count = new int[1];
+				MinecraftForge.EVENT_BUS.post(probe, (listener, event) -> {
+					if(!(listener instanceof EventPriority)) {
+						count[0]++;
+					}
+				});
+				others[side] = count[0] > ownListeners;
+				checkedAt[side] = time;
+			}
+			return others[side];
+		}
+
+	}
+
 }
@@ -0,0 +1,31 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.common.lib.LibMisc;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearbySmeltables;
+import vazkii.psi.common.spell.trick.block.PieceTrickBreakBlock;
+
+/**
+ * Drops the caches that are built from tags or data pack contents when those are reloaded or synced.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class ReloadHandler {
+
+	@SubscribeEvent
+	public static void onTagsUpdated(TagsUpdatedEvent event) {
+		PieceTrickBreakBlock.clearHarvestCache();
+		PieceSelectorNearbySmeltables.clearSmeltCache();
+	}
+
+}
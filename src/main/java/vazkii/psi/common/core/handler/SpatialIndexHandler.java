@@ -0,0 +1,246 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.entity.living.LivingEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.api.PsiAPI;
+import vazkii.psi.common.entity.EntitySpellMine;
+import vazkii.psi.common.lib.LibMisc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a per-level spatial hash of spell mines and of every entity with a detonation handler,
+ * bucketed by chunk section. Mines get told about living entities walking into them instead of
+ * searching for them every tick, and detonations only look at the sections around their center.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class SpatialIndexHandler {
+
+	// One map per side, so the client and the integrated server threads never touch the same one
+	private static final Map<Level, LevelIndex> serverIndices = new WeakHashMap<>();
+	private static final Map<Level, LevelIndex> clientIndices = new WeakHashMap<>();
+
+	/**
+	 * Gets the entities with a detonation handler that are in the sections within range of the given position.
+	 * The result may contain entities a bit out of range, their loci are to be checked by the caller.
+	 */
+	public static List<Entity> getDetonators(Level level, Vec3 center, double range) {
+		List<Entity> found = new ArrayList<>();
+		LevelIndex index = indices(level).get(level);
+		if(index != null) {
+			index.detonators.forEachIn(new AABB(center, center).inflate(range), found::add);
+		}
+		return found;
+	}
+
+	/**
+	 * Moves the entity to the section it's currently in, if it's indexed at all.
+	 * Called by indexed entities that move during their own tick.
+	 */
+	public static void update(Entity entity) {
+		LevelIndex index = indices(entity.level).get(entity.level);
+		if(index != null) {
+			index.detonators.move(entity);
+			index.mines.move(entity);
+		}
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void onEntityJoin(EntityJoinLevelEvent event) {
+		Entity entity = event.getEntity();
+		boolean mine = entity instanceof EntitySpellMine;
+		boolean detonator = entity.getCapability(PsiAPI.DETONATION_HANDLER_CAPABILITY).isPresent();
+
+		if(mine || detonator) {
+			LevelIndex index = indices(event.getLevel()).computeIfAbsent(event.getLevel(), l -> new LevelIndex());
+			if(mine) {
+				index.mines.add(entity);
+			}
+			if(detonator) {
+				index.detonators.add(entity);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onEntityLeave(EntityLeaveLevelEvent event) {
+		LevelIndex index = indices(event.getLevel()).get(event.getLevel());
+		if(index != null) {
+			index.detonators.remove(event.getEntity());
+			index.mines.remove(event.getEntity());
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLivingTick(LivingEvent.LivingTickEvent event) {
+		LivingEntity entity = event.getEntity();
+		LevelIndex index = indices(entity.level).get(entity.level);
+		if(index == null) {
+			return;
+		}
+
+		index.detonators.move(entity);
+
+		if(!index.mines.isEmpty() && !entity.isSpectator()) {
+			AABB box = entity.getBoundingBox();
+			index.mines.forEachIn(box.inflate(EntitySpellMine.TRIGGER_RANGE + 1), e -> ((EntitySpellMine) e).touch(entity, box));
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLevelTick(TickEvent.LevelTickEvent event) {
+		if(event.phase == TickEvent.Phase.END) {
+			LevelIndex index = indices(event.level).get(event.level);
+			if(index != null) {
+				index.detonators.refresh();
+				index.mines.refresh();
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		if(event.getLevel() instanceof Level) {
+			indices((Level) event.getLevel()).remove(event.getLevel());
+		}
+	}
+
+	private static Map<Level, LevelIndex> indices(Level level) {
+		return level.isClientSide ? clientIndices : serverIndices;
+	}
+
+	private static class LevelIndex {
+
+		private final SectionGrid detonators = new SectionGrid();
+		private final SectionGrid mines = new SectionGrid();
+
+	}
+
+	private static class SectionGrid {
+
+		private final Long2ObjectMap<List<Entity>> cells = new Long2ObjectOpenHashMap<>();
+		private final Object2LongMap<Entity> keys = new Object2LongOpenHashMap<>();
+
+		private static long keyOf(Entity entity) {
+			return SectionPos.asLong(SectionPos.posToSectionCoord(entity.getX()), SectionPos.posToSectionCoord(entity.getY()), SectionPos.posToSectionCoord(entity.getZ()));
+		}
+
+		private boolean isEmpty() {
+			return keys.isEmpty();
+		}
+
+		private void add(Entity entity) {
+			if(!keys.containsKey(entity)) {
+				long key = keyOf(entity);
+				keys.put(entity, key);
+				cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+			}
+		}
+
+		private void remove(Entity entity) {
+			if(keys.containsKey(entity)) {
+				removeFromCell(keys.removeLong(entity), entity);
+			}
+		}
+
+		private void move(Entity entity) {
+			if(keys.containsKey(entity)) {
+				long key = keyOf(entity);
+				long oldKey = keys.put(entity, key);
+				if(oldKey != key) {
+					removeFromCell(oldKey, entity);
+					cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+				}
+			}
+		}
+
+		private void refresh() {
+			for(Object2LongMap.Entry<Entity> entry : keys.object2LongEntrySet()) {
+				long key = keyOf(entry.getKey());
+				if(entry.getLongValue() != key) {
+					removeFromCell(entry.getLongValue(), entry.getKey());
+					cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getKey());
+					entry.setValue(key);
+				}
+			}
+		}
+
+		private void removeFromCell(long key, Entity entity) {
+			List<Entity> cell = cells.get(key);
+			if(cell != null) {
+				cell.remove(entity);
+				if(cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+
+		// The action must not change the grid
+		private void forEachIn(AABB box, Consumer<Entity> action) {
+			int minX = SectionPos.posToSectionCoord(box.minX);
+			int minY = SectionPos.posToSectionCoord(box.minY);
+			int minZ = SectionPos.posToSectionCoord(box.minZ);
+			int maxX = SectionPos.posToSectionCoord(box.maxX);
+			int maxY = SectionPos.posToSectionCoord(box.maxY);
+			int maxZ = SectionPos.posToSectionCoord(box.maxZ);
+
+			// Looking through every occupied section is cheaper than probing a big mostly empty box
+			long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+			if(volume > cells.size()) {
+				for(Long2ObjectMap.Entry<List<Entity>> entry : cells.long2ObjectEntrySet()) {
+					long key = entry.getLongKey();
+					int x = SectionPos.x(key);
+					int y = SectionPos.y(key);
+					int z = SectionPos.z(key);
+					if(x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+						entry.getValue().forEach(action);
+					}
+				}
+				return;
+			}
+
+			for(int x = minX; x <= maxX; x++) {
+				for(int y = minY; y <= maxY; y++) {
+					for(int z = minZ; z <= maxZ; z++) {
+						List<Entity> cell = cells.get(SectionPos.asLong(x, y, z));
+						if(cell != null) {
+							cell.forEach(action);
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+}
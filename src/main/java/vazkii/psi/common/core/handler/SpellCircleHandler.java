@@ -0,0 +1,174 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.common.entity.EntitySpellCircle;
+import vazkii.psi.common.lib.LibMisc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Runs the pulses of all server side spell circles of a level in one loop at the end of the level tick.
+ * Pulses are grouped by the tick they became due on, casters are looked up once per group, and the
+ * amount of pulses per tick can be capped, in which case the rest carry over to the next tick.
+ * <p>
+ * {@code /psi circles} reports how many pulses the last tick of the current dimension ran, how long
+ * they took and how many are still waiting.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class SpellCircleHandler {
+
+	private static final Map<Level, CircleQueue> queues = new WeakHashMap<>();
+
+	public static void schedulePulse(EntitySpellCircle circle) {
+		CircleQueue queue = queues.computeIfAbsent(circle.level, l -> new CircleQueue());
+		long time = circle.level.getGameTime();
+
+		PulseGroup group = queue.groups.peekLast();
+		if(group == null || group.dueTime != time) {
+			group = new PulseGroup(time);
+			queue.groups.addLast(group);
+		}
+
+		group.circles.add(circle);
+		queue.pending++;
+	}
+
+	/**
+	 * How many pulses are waiting to be run in the given level.
+	 */
+	public static int getPendingPulses(Level level) {
+		CircleQueue queue = queues.get(level);
+		return queue == null ? 0 : queue.pending;
+	}
+
+	/**
+	 * How many pulses were run in the given level on its last tick.
+	 */
+	public static int getLastPulseCount(Level level) {
+		CircleQueue queue = queues.get(level);
+		return queue == null ? 0 : queue.lastPulses;
+	}
+
+	/**
+	 * How long running the pulses took in the given level on its last tick, in nanoseconds.
+	 */
+	public static long getLastPulseTime(Level level) {
+		CircleQueue queue = queues.get(level);
+		return queue == null ? 0 : queue.lastNanos;
+	}
+
+	@SubscribeEvent
+	public static void onLevelTick(TickEvent.LevelTickEvent event) {
+		if(event.side.isServer() && event.phase == TickEvent.Phase.END) {
+			CircleQueue queue = queues.get(event.level);
+			if(queue != null) {
+				queue.run(event.level, ConfigHandler.COMMON.circlePulsesPerTick.get());
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onRegisterCommands(RegisterCommandsEvent event) {
+		event.getDispatcher().register(Commands.literal(LibMisc.MOD_ID)
+				.requires(source -> source.hasPermission(2))
+				.then(Commands.literal("circles").executes(context -> {
+					Level level = context.getSource().getLevel();
+					int pulses = getLastPulseCount(level);
+					String millis = String.format("%.3f", getLastPulseTime(level) / 1.0E6);
+					context.getSource().sendSuccess(Component.translatable("psi.command.circles", pulses, millis, getPendingPulses(level)), false);
+					return pulses;
+				})));
+	}
+
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		if(event.getLevel() instanceof Level) {
+			queues.remove((Level) event.getLevel());
+		}
+	}
+
+	private static class CircleQueue {
+
+		private final Deque<PulseGroup> groups = new ArrayDeque<>();
+		private int pending;
+		private int lastPulses;
+		private long lastNanos;
+
+		private void run(Level level, int budget) {
+			long start = System.nanoTime();
+			int pulses = 0;
+
+			while(!groups.isEmpty() && (budget <= 0 || pulses < budget)) {
+				PulseGroup group = groups.peekFirst();
+				Map<UUID, Player> casters = new HashMap<>();
+
+				while(group.next < group.circles.size() && (budget <= 0 || pulses < budget)) {
+					EntitySpellCircle circle = group.circles.get(group.next++);
+					pending--;
+
+					if(circle.isRemoved()) {
+						continue;
+					}
+
+					UUID casterId = circle.getCasterId();
+					Player caster = null;
+					if(casterId != null) {
+						if(casters.containsKey(casterId)) {
+							caster = casters.get(casterId);
+						} else {
+							caster = level.getPlayerByUUID(casterId);
+							casters.put(casterId, caster);
+						}
+					}
+					circle.pulse(caster);
+					pulses++;
+				}
+
+				if(group.next >= group.circles.size()) {
+					groups.removeFirst();
+				}
+			}
+
+			lastPulses = pulses;
+			lastNanos = System.nanoTime() - start;
+		}
+
+	}
+
+	private static class PulseGroup {
+
+		private final long dueTime;
+		private final List<EntitySpellCircle> circles = new ArrayList<>();
+		private int next;
+
+		private PulseGroup(long dueTime) {
+			this.dueTime = dueTime;
+		}
+
+	}
+
+}
@@ -0,0 +1,32 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.api.internal.SpellDropCollector;
+import vazkii.psi.common.lib.LibMisc;
+
+/**
+ * Keeps the item entities spawned while a spell breaks blocks out of the level, when their drops are
+ * being collected. See {@link SpellDropCollector}.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class SpellDropHandler {
+
+	@SubscribeEvent
+	public static void onEntityJoin(EntityJoinLevelEvent event) {
+		if(SpellDropCollector.tryCapture(event.getEntity())) {
+			event.setCanceled(true);
+		}
+	}
+
+}
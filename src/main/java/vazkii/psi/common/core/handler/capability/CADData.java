@@ -44,6 +44,18 @@ public class CADData implements ICapabilityProvider, ICADData, ISpellAcceptor, I
 
 	private boolean dirty;
 
+	private static final EnumCADComponent[] COMPONENT_TYPES = EnumCADComponent.values();
+	private static final EnumCADStat[] STATS = EnumCADStat.values();
+
+	// Component stats, resolved once per component configuration
+	private final Tag[] statSources = new Tag[COMPONENT_TYPES.length];
+	private final ItemStack[] components = new ItemStack[COMPONENT_TYPES.length];
+	private final int[] componentStats = new int[STATS.length];
+	private boolean statsValid;
+
+	private CompoundTag hashedBullet;
+	private int bulletHash;
+
 	private final LazyOptional<?> optional;
 
 	public CADData(ItemStack cad) {
@@ -104,6 +116,65 @@ public void setSavedVector(int memorySlot, Vector3 value) {
 		vectors.set(memorySlot, value);
 	}
 
+	/**
+	 * Gets the stat value provided by the CAD's component, before {@link CADStatEvent} is applied.
+	 */
+	public int getComponentStatValue(EnumCADStat stat) {
+		validateStats();
+		return componentStats[stat.ordinal()];
+	}
+
+	/**
+	 * Gets a copy of the component stack that provides the given stat.
+	 */
+	public ItemStack getStatComponent(EnumCADStat stat) {
+		validateStats();
+		return components[stat.getSourceType().ordinal()].copy();
+	}
+
+	public void invalidateStats() {
+		statsValid = false;
+	}
+
+	private void validateStats() {
+		// A CAD without a tag has no components, don't give it one just by reading its stats
+		CompoundTag tag = cad.getTag();
+		if(statsValid) {
+			for(EnumCADComponent type : COMPONENT_TYPES) {
+				if(getComponentTag(tag, type) != statSources[type.ordinal()]) {
+					statsValid = false;
+					break;
+				}
+			}
+
+			if(statsValid) {
+				return;
+			}
+		}
+
+		ICAD icad = (ICAD) cad.getItem();
+		for(EnumCADComponent type : COMPONENT_TYPES) {
+			statSources[type.ordinal()] = getComponentTag(tag, type);
+			components[type.ordinal()] = tag == null ? ItemStack.EMPTY : icad.getComponentInSlot(cad, type);
+		}
+
+		for(EnumCADStat stat : STATS) {
+			ItemStack componentStack = components[stat.getSourceType().ordinal()];
+			int statValue = 0;
+			if(!componentStack.isEmpty() && componentStack.getItem() instanceof ICADComponent) {
+				statValue = ((ICADComponent) componentStack.getItem()).getCADStatValue(componentStack, stat);
+			}
+			componentStats[stat.ordinal()] = statValue;
+		}
+
+		statsValid = true;
+	}
+
+	@Nullable
+	private static Tag getComponentTag(@Nullable CompoundTag tag, EnumCADComponent type) {
+		return tag == null ? null : tag.get(ICAD.TAG_COMPONENT_PREFIX + type.name());
+	}
+
 	@Override
 	public boolean isDirty() {
 		return dirty;
@@ -151,6 +222,21 @@ public ItemStack getBulletInSocket(int slot) {
 		return ItemStack.of(cmp);
 	}
 
+	@Override
+	public int getSocketContentHash(int slot) {
+		String name = IPsimetalTool.TAG_BULLET_PREFIX + slot;
+		CompoundTag tag = cad.getTag();
+		CompoundTag cmp = tag == null ? null : tag.getCompound(name);
+
+		// The socket tag is replaced whenever the bullet changes, so only rehash on a new tag
+		if(cmp != hashedBullet) {
+			hashedBullet = cmp;
+			bulletHash = cmp == null || cmp.isEmpty() ? 0 : cmp.hashCode();
+		}
+
+		return bulletHash;
+	}
+
 	@Override
 	public void setBulletInSocket(int slot, ItemStack bullet) {
 		String name = IPsimetalTool.TAG_BULLET_PREFIX + slot;
@@ -11,6 +11,7 @@
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -18,6 +19,7 @@
 import vazkii.psi.api.spell.ISpellImmune;
 import vazkii.psi.api.spell.detonator.IDetonationHandler;
 import vazkii.psi.common.core.capability.CapabilityTriggerSensor;
+import vazkii.psi.common.core.capability.ConjuredColorPalette;
 import vazkii.psi.common.core.handler.capability.wrappers.SimpleProvider;
 import vazkii.psi.common.lib.LibMisc;
 
@@ -72,6 +74,7 @@ public void readNBT(Capability<T> capability, T instance, Direction side, Tag nb
 	private static final ResourceLocation SPELL_IMMUNE = new ResourceLocation(LibMisc.MOD_ID, "immune");
 	private static final ResourceLocation DETONATOR = new ResourceLocation(LibMisc.MOD_ID, "detonator");
 	public static final ResourceLocation TRIGGER_SENSOR = new ResourceLocation(LibMisc.MOD_ID, "trigger_sensor");
+	private static final ResourceLocation CONJURED_COLORS = new ResourceLocation(LibMisc.MOD_ID, "conjured_colors");
 
 	@SubscribeEvent
 	public static void attachEntityCapabilities(AttachCapabilitiesEvent<Entity> event) {
@@ -88,4 +91,9 @@ public static void attachEntityCapabilities(AttachCapabilitiesEvent<Entity> even
 		}
 	}
 
+	@SubscribeEvent
+	public static void attachChunkCapabilities(AttachCapabilitiesEvent<LevelChunk> event) {
+		event.addCapability(CONJURED_COLORS, new ConjuredColorPalette());
+	}
+
 }
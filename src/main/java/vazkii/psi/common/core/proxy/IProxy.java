@@ -56,6 +56,14 @@ default Color getColorizerColor(ItemStack colorizer) {
 		return new Color(getColorForColorizer(colorizer));
 	}
 
+	/**
+	 * How many of the given amount of particles an emitter at the given position should spawn this tick,
+	 * based on its distance to the camera and the particle setting.
+	 */
+	default int getParticleBudget(double x, double y, double z, int count) {
+		return 0;
+	}
+
 	void sparkleFX(Level world, double x, double y, double z, float r, float g, float b, float motionx, float motiony, float motionz, float size, int m);
 
 	default void sparkleFX(double x, double y, double z, float r, float g, float b, float gravity, float size, int m) {
@@ -8,17 +8,28 @@
  */
 package vazkii.psi.common.entity;
 
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.entity.projectile.ThrowableProjectile;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.registries.ObjectHolder;
 
+import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.detonator.IDetonationHandler;
+import vazkii.psi.common.core.handler.SpatialIndexHandler;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 public class EntitySpellCharge extends EntitySpellGrenade implements IDetonationHandler {
 	@ObjectHolder(registryName = "minecraft:entity_type", value = LibResources.PREFIX_MOD + LibEntityNames.SPELL_CHARGE)
 	public static EntityType<EntitySpellCharge> TYPE;
@@ -31,6 +42,12 @@ public EntitySpellCharge(Level worldIn, LivingEntity throwerIn) {
 		super(TYPE, worldIn, throwerIn);
 	}
 
+	@Override
+	public void tick() {
+		super.tick();
+		SpatialIndexHandler.update(this);
+	}
+
 	@Override
 	public int getParticleCount() {
 		return 2;
@@ -55,4 +72,44 @@ public Vec3 objectLocus() {
 	public void detonate() {
 		doExplosion();
 	}
+
+	/**
+	 * Detonates many charges in one pass. Casters are looked up once per caster and spells compiled once per spell.
+	 */
+	public static void detonateAll(Player player, List<EntitySpellCharge> charges) {
+		Map<UUID, Entity> casters = new HashMap<>();
+		Map<UUID, CompiledSpell> compiled = new HashMap<>();
+		casters.put(player.getUUID(), player);
+
+		for(EntitySpellCharge charge : charges) {
+			// An earlier charge's spell may have gotten rid of this one
+			if(charge.isRemoved()) {
+				continue;
+			}
+
+			UUID casterId = charge.getCasterId();
+			Entity thrower;
+			if(casterId == null) {
+				thrower = charge.getOwner();
+			} else if(casters.containsKey(casterId)) {
+				thrower = casters.get(casterId);
+			} else {
+				thrower = charge.getOwner();
+				casters.put(casterId, thrower);
+			}
+
+			CompiledSpell cspell = null;
+			Spell spell = charge.getSpell();
+			if(spell != null && charge.context == null) {
+				if(compiled.containsKey(spell.uuid)) {
+					cspell = compiled.get(spell.uuid);
+				} else {
+					cspell = PsiAPI.internalHandler.getSpellCache().getCompiledSpell(spell);
+					compiled.put(spell.uuid, cspell);
+				}
+			}
+
+			charge.doExplosion(thrower, cspell);
+		}
+	}
 }
@@ -9,6 +9,8 @@
 package vazkii.psi.common.entity;
 
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.EntityDataSerializers;
@@ -23,12 +25,16 @@
 import net.minecraftforge.network.NetworkHooks;
 import net.minecraftforge.registries.ObjectHolder;
 
+import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.internal.PsiRenderHelper;
+import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.ISpellAcceptor;
 import vazkii.psi.api.spell.ISpellImmune;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.handler.PlayerDataHandler;
+import vazkii.psi.common.core.handler.SpellCircleHandler;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
 
@@ -51,13 +57,13 @@ public class EntitySpellCircle extends Entity implements ISpellImmune {
 	private static final String TAG_CASTER = "caster";
 	private static final String TAG_TIME_ALIVE = "timeAlive";
 	private static final String TAG_TIMES_CAST = "timesCast";
+	private static final String TAG_DELAYED_CONTEXTS = "delayedContexts";
 
 	private static final String TAG_LOOK_X = "savedLookX";
 	private static final String TAG_LOOK_Y = "savedLookY";
 	private static final String TAG_LOOK_Z = "savedLookZ";
 
 	public static final EntityDataAccessor<ItemStack> COLORIZER_DATA = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.ITEM_STACK);
-	private static final EntityDataAccessor<ItemStack> BULLET_DATA = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.ITEM_STACK);
 	private static final EntityDataAccessor<Optional<UUID>> CASTER_UUID = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.OPTIONAL_UUID);
 	private static final EntityDataAccessor<Integer> TIME_ALIVE = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.INT);
 	private static final EntityDataAccessor<Integer> TIMES_CAST = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.INT);
@@ -66,26 +72,43 @@ public class EntitySpellCircle extends Entity implements ISpellImmune {
 	private static final EntityDataAccessor<Float> LOOK_Y = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.FLOAT);
 	private static final EntityDataAccessor<Float> LOOK_Z = SynchedEntityData.defineId(EntitySpellCircle.class, EntityDataSerializers.FLOAT);
 
+	private ItemStack bullet = ItemStack.EMPTY;
+
+	// Resolved from the bullet, see getSpell()
+	@Nullable
+	private Spell spell;
+	private boolean hasSpellContainer;
+	private boolean spellResolved;
+
+	// Reused by every pulse that doesn't find the last one still delayed
+	@Nullable
+	private SpellContext context;
+
+	// Delayed pulses read from disk, resumed once the caster is around
+	@Nullable
+	private ListTag savedContexts;
+
 	public EntitySpellCircle(EntityType<?> type, Level worldIn) {
 		super(type, worldIn);
 	}
 
 	public EntitySpellCircle setInfo(Player player, ItemStack colorizer, ItemStack bullet) {
 		entityData.set(COLORIZER_DATA, colorizer);
-		entityData.set(BULLET_DATA, bullet.copy());
+		setBullet(bullet.copy());
 		entityData.set(CASTER_UUID, Optional.of(player.getUUID()));
 
 		Vec3 lookVec = player.getViewVector(1F);
 		entityData.set(LOOK_X, (float) lookVec.x);
 		entityData.set(LOOK_Y, (float) lookVec.y);
 		entityData.set(LOOK_Z, (float) lookVec.z);
+
+		getSpell();
 		return this;
 	}
 
 	@Override
 	protected void defineSynchedData() {
 		entityData.define(COLORIZER_DATA, ItemStack.EMPTY);
-		entityData.define(BULLET_DATA, ItemStack.EMPTY);
 		entityData.define(CASTER_UUID, Optional.empty());
 		entityData.define(TIME_ALIVE, 0);
 		entityData.define(TIMES_CAST, 0);
@@ -104,7 +127,6 @@ public void addAdditionalSaveData(@Nonnull CompoundTag tagCompound) {
 		tagCompound.put(TAG_COLORIZER, colorizerCmp);
 
 		CompoundTag bulletCmp = new CompoundTag();
-		ItemStack bullet = entityData.get(BULLET_DATA);
 		if(!bullet.isEmpty()) {
 			bulletCmp = bullet.save(bulletCmp);
 		}
@@ -117,6 +139,16 @@ public void addAdditionalSaveData(@Nonnull CompoundTag tagCompound) {
 		tagCompound.putFloat(TAG_LOOK_X, entityData.get(LOOK_X));
 		tagCompound.putFloat(TAG_LOOK_Y, entityData.get(LOOK_Y));
 		tagCompound.putFloat(TAG_LOOK_Z, entityData.get(LOOK_Z));
+
+		ListTag delayed = savedContexts == null ? new ListTag() : savedContexts.copy();
+		for(SpellContext delayedContext : PlayerDataHandler.getDelayedContexts(this)) {
+			CompoundTag contextCmp = new CompoundTag();
+			delayedContext.writeStateToNBT(contextCmp);
+			delayed.add(contextCmp);
+		}
+		if(!delayed.isEmpty()) {
+			tagCompound.put(TAG_DELAYED_CONTEXTS, delayed);
+		}
 	}
 
 	@Override
@@ -126,8 +158,7 @@ public void readAdditionalSaveData(@Nonnull CompoundTag tagCompound) {
 		entityData.set(COLORIZER_DATA, colorizer);
 
 		CompoundTag bulletCmp = tagCompound.getCompound(TAG_BULLET);
-		ItemStack bullet = ItemStack.of(bulletCmp);
-		entityData.set(BULLET_DATA, bullet);
+		setBullet(ItemStack.of(bulletCmp));
 
 		if(tagCompound.contains(TAG_CASTER)) {
 			entityData.set(CASTER_UUID, Optional.of(UUID.fromString(tagCompound.getString(TAG_CASTER))));
@@ -138,6 +169,42 @@ public void readAdditionalSaveData(@Nonnull CompoundTag tagCompound) {
 		entityData.set(LOOK_X, tagCompound.getFloat(TAG_LOOK_X));
 		entityData.set(LOOK_Y, tagCompound.getFloat(TAG_LOOK_Y));
 		entityData.set(LOOK_Z, tagCompound.getFloat(TAG_LOOK_Z));
+
+		ListTag delayed = tagCompound.getList(TAG_DELAYED_CONTEXTS, Tag.TAG_COMPOUND);
+		savedContexts = delayed.isEmpty() ? null : delayed;
+
+		getSpell();
+	}
+
+	/**
+	 * Gets the bullet this entity casts from. The bullet only exists on the server, it's never synced to clients.
+	 */
+	public ItemStack getBullet() {
+		return bullet;
+	}
+
+	public void setBullet(ItemStack bullet) {
+		this.bullet = bullet;
+		spellResolved = false;
+	}
+
+	/**
+	 * Gets the spell held by the bullet. It's only decoded again when the bullet changes.
+	 */
+	@Nullable
+	public Spell getSpell() {
+		if(!spellResolved) {
+			hasSpellContainer = !bullet.isEmpty() && ISpellAcceptor.isContainer(bullet);
+			spell = hasSpellContainer ? ISpellAcceptor.acceptor(bullet).getSpell() : null;
+			spellResolved = true;
+		}
+
+		return spell;
+	}
+
+	public boolean hasSpellContainer() {
+		getSpell();
+		return hasSpellContainer;
 	}
 
 	@Override
@@ -152,34 +219,23 @@ public void tick() {
 		setTimeAlive(timeAlive + 1);
 		int times = entityData.get(TIMES_CAST);
 
-		if(timeAlive > CAST_DELAY && timeAlive % CAST_DELAY == 0 && times < 20) {
-			SpellContext context = null;
-			Entity thrower = getCaster();
-			if(thrower instanceof Player) {
-				ItemStack spellContainer = entityData.get(BULLET_DATA);
-				if(!spellContainer.isEmpty() && ISpellAcceptor.isContainer(spellContainer)) {
-					entityData.set(TIMES_CAST, times + 1);
-					Spell spell = ISpellAcceptor.acceptor(spellContainer).getSpell();
-					if(spell != null) {
-						context = new SpellContext().setPlayer((Player) thrower).setFocalPoint(this)
-								.setSpell(spell).setLoopcastIndex(times);
-					}
-				}
-			}
+		if(!level.isClientSide && timeAlive > CAST_DELAY && timeAlive % CAST_DELAY == 0 && times < CAST_TIMES) {
+			SpellCircleHandler.schedulePulse(this);
+		}
 
-			if(context != null) {
-				context.cspell.safeExecute(context);
-			}
+		if(!level.isClientSide && savedContexts != null) {
+			resumeSavedContexts();
 		}
 
-		if(level.isClientSide) {
+		int particles = level.isClientSide ? Psi.proxy.getParticleBudget(getX(), getY(), getZ(), 5) : 0;
+		if(particles > 0) {
 			ItemStack colorizer = entityData.get(COLORIZER_DATA);
 			int colorVal = Psi.proxy.getColorForColorizer(colorizer);
 
 			float r = PsiRenderHelper.r(colorVal) / 255F;
 			float g = PsiRenderHelper.g(colorVal) / 255F;
 			float b = PsiRenderHelper.b(colorVal) / 255F;
-			for(int i = 0; i < 5; i++) {
+			for(int i = 0; i < particles; i++) {
 				double x = getX() + (Math.random() - 0.5) * getBbWidth();
 				double y = getY() - getMyRidingOffset();
 				double z = getZ() + (Math.random() - 0.5) * getBbWidth();
@@ -190,6 +246,74 @@ public void tick() {
 
 	}
 
+	/**
+	 * Casts the circle's spell once. Only happens on the server, run by {@link SpellCircleHandler}.
+	 */
+	public void pulse(@Nullable Entity thrower) {
+		int times = entityData.get(TIMES_CAST);
+		if(times >= CAST_TIMES) {
+			return;
+		}
+
+		SpellContext context = null;
+		if(thrower instanceof Player) {
+			if(hasSpellContainer()) {
+				entityData.set(TIMES_CAST, times + 1);
+				Spell spell = getSpell();
+				if(spell != null) {
+					context = nextContext((Player) thrower, spell).setLoopcastIndex(times);
+				}
+			}
+		}
+
+		if(context != null) {
+			context.cspell.safeExecute(context);
+		}
+	}
+
+	private void resumeSavedContexts() {
+		UUID casterId = getCasterId();
+		Player caster = casterId == null ? null : level.getPlayerByUUID(casterId);
+		Spell spell = getSpell();
+		if(caster == null || spell == null) {
+			return;
+		}
+
+		ListTag delayed = savedContexts;
+		savedContexts = null;
+		for(int i = 0; i < delayed.size(); i++) {
+			SpellContext resumed = new SpellContext().setPlayer(caster).setFocalPoint(this).setSpell(spell);
+			if(resumed.readStateFromNBT(delayed.getCompound(i)) && resumed.actions != null && !resumed.stopped) {
+				if(resumed.delay > 0) {
+					PsiAPI.internalHandler.delayContext(resumed);
+				} else {
+					resumed.cspell.safeExecute(resumed);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onRemovedFromWorld() {
+		super.onRemovedFromWorld();
+
+		// Delayed pulses were saved with the circle, they resume when it's loaded again
+		RemovalReason reason = getRemovalReason();
+		if(!level.isClientSide && reason != null && !reason.shouldDestroy()) {
+			PlayerDataHandler.removeDelayedContexts(this);
+		}
+	}
+
+	private SpellContext nextContext(Player caster, Spell spell) {
+		CompiledSpell cspell = PsiAPI.internalHandler.getSpellCache().getCompiledSpell(spell);
+		if(context == null || context.caster != caster || context.cspell != cspell || !context.canReuse()) {
+			context = new SpellContext().setPlayer(caster).setCompiledSpell(cspell);
+		} else {
+			context.reset();
+		}
+		return context.setFocalPoint(this);
+	}
+
 	@Override
 	public Vec3 getLookAngle() {
 		float x = entityData.get(LOOK_X);
@@ -206,6 +330,11 @@ public void setTimeAlive(int i) {
 		entityData.set(TIME_ALIVE, i);
 	}
 
+	@Nullable
+	public UUID getCasterId() {
+		return entityData.get(CASTER_UUID).orElse(null);
+	}
+
 	@Nullable
 	public LivingEntity getCaster() {
 		return entityData.get(CASTER_UUID).map(getCommandSenderWorld()::getPlayerByUUID).orElse(null);
@@ -11,6 +11,7 @@
 import net.minecraft.core.Direction;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.projectile.ThrowableProjectile;
@@ -22,11 +23,13 @@
 import net.minecraftforge.registries.ObjectHolder;
 
 import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.Optional;
 
@@ -66,14 +69,19 @@ public void tick() {
 	}
 
 	public void doExplosion() {
-		if(getAttackTarget() != null) {
-			cast((SpellContext context) -> {
+		doExplosion(getOwner(), null);
+	}
+
+	protected void doExplosion(@Nullable Entity thrower, @Nullable CompiledSpell cspell) {
+		LivingEntity target = getAttackTarget();
+		if(target != null) {
+			cast(thrower, cspell, (SpellContext context) -> {
 				if(context != null) {
-					context.attackedEntity = getAttackTarget();
+					context.attackedEntity = target;
 				}
 			});
 		} else {
-			cast();
+			cast(thrower, cspell, null);
 		}
 		playSound(SoundEvents.GENERIC_EXPLODE, 0.5F, 1F);
 		double m = 0.1;
@@ -9,25 +9,30 @@
 package vazkii.psi.common.entity;
 
 import net.minecraft.sounds.SoundEvents;
-import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.projectile.ThrowableProjectile;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
 import net.minecraftforge.registries.ObjectHolder;
 
+import vazkii.psi.common.core.handler.SpatialIndexHandler;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
 
-import java.util.List;
 import java.util.Optional;
 
 public class EntitySpellMine extends EntitySpellGrenade {
 	@ObjectHolder(registryName = "entity_type", value = LibResources.PREFIX_MOD + LibEntityNames.SPELL_MINE)
 	public static EntityType<EntitySpellMine> TYPE;
 
+	public static final double TRIGGER_RANGE = 1;
+
 	boolean triggered = false;
 
+	// First living entity that walked into range since the last tick, see touch()
+	private LivingEntity contact;
+
 	public EntitySpellMine(EntityType<? extends ThrowableProjectile> type, Level worldIn) {
 		super(type, worldIn);
 	}
@@ -39,24 +44,37 @@ public EntitySpellMine(Level worldIn, LivingEntity throwerIn) {
 	@Override
 	public void tick() {
 		super.tick();
+		SpatialIndexHandler.update(this);
 
-		List<LivingEntity> entities = getCommandSenderWorld().getEntitiesOfClass(LivingEntity.class, getBoundingBox().inflate(1, 1, 1));
-		Entity thrower = getOwner();
-		if(thrower != null && tickCount < 30) {
-			entities.remove(thrower);
-		}
+		LivingEntity entity = contact;
+		contact = null;
 
-		if(!entities.isEmpty()) {
+		if(entity != null) {
 			if(!triggered) {
 				playSound(SoundEvents.STONE_PRESSURE_PLATE_CLICK_ON, 0.5F, 0.6F);
 			}
 			triggered = true;
-			entityData.set(ATTACKTARGET_UUID, Optional.of(entities.get(0).getUUID()));
+			entityData.set(ATTACKTARGET_UUID, Optional.of(entity.getUUID()));
 		} else if(triggered) {
 			doExplosion();
 		}
 	}
 
+	/**
+	 * Called by the spatial index when a living entity near this mine ticks.
+	 */
+	public void touch(LivingEntity entity, AABB box) {
+		if(contact != null || isRemoved() || !getBoundingBox().inflate(TRIGGER_RANGE).intersects(box)) {
+			return;
+		}
+
+		if(tickCount < 30 && entity == getOwner()) {
+			return;
+		}
+
+		contact = entity;
+	}
+
 	@Override
 	public int getParticleCount() {
 		return 1;
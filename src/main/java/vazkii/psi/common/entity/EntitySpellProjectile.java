@@ -8,40 +8,58 @@
  */
 package vazkii.psi.common.entity;
 
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.EntityDataSerializers;
 import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.projectile.ProjectileUtil;
 import net.minecraft.world.entity.projectile.ThrowableProjectile;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.TheEndGatewayBlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
 import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.EntityHitResult;
 import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.network.NetworkHooks;
 import net.minecraftforge.registries.ObjectHolder;
 
 import vazkii.psi.api.internal.PsiRenderHelper;
 import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.ISpellAcceptor;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.common.Psi;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
+import vazkii.psi.mixin.AccessorProjectile;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class EntitySpellProjectile extends ThrowableProjectile {
 	@ObjectHolder(registryName = "minecraft:entity_type", value = LibResources.PREFIX_MOD + LibEntityNames.SPELL_PROJECTILE)
@@ -50,19 +68,42 @@ public class EntitySpellProjectile extends ThrowableProjectile {
 	private static final String TAG_COLORIZER = "colorizer";
 	private static final String TAG_BULLET = "bullet";
 	private static final String TAG_TIME_ALIVE = "timeAlive";
+	private static final String TAG_CONTEXT = "context";
 
 	private static final String TAG_LAST_MOTION_X = "lastMotionX";
 	private static final String TAG_LAST_MOTION_Y = "lastMotionY";
 	private static final String TAG_LAST_MOTION_Z = "lastMotionZ";
 
 	private static final EntityDataAccessor<ItemStack> COLORIZER_DATA = SynchedEntityData.defineId(EntitySpellProjectile.class, EntityDataSerializers.ITEM_STACK);
-	private static final EntityDataAccessor<ItemStack> BULLET_DATA = SynchedEntityData.defineId(EntitySpellProjectile.class, EntityDataSerializers.ITEM_STACK);
 	private static final EntityDataAccessor<Optional<UUID>> CASTER_UUID = SynchedEntityData.defineId(EntitySpellProjectile.class, EntityDataSerializers.OPTIONAL_UUID);
 	protected static final EntityDataAccessor<Optional<UUID>> ATTACKTARGET_UUID = SynchedEntityData.defineId(EntitySpellProjectile.class, EntityDataSerializers.OPTIONAL_UUID);
 
+	// Scratch vectors for particles, only ever touched on the client thread
+	private static final Vector3 PARTICLE_LOOK_ORIG = new Vector3();
+	private static final Vector3 PARTICLE_LOOK = new Vector3();
+
 	public SpellContext context;
 	public int timeAlive;
 
+	private ItemStack bullet = ItemStack.EMPTY;
+
+	// Resolved from the bullet, see getSpell()
+	@Nullable
+	private Spell spell;
+	private boolean hasSpellContainer;
+	private boolean spellResolved;
+
+	// Context state read from disk, picked up by cast() once the caster is around
+	@Nullable
+	private CompoundTag savedContext;
+
+	// Block ray of a straight flight, see getFlightHitResult()
+	@Nullable
+	private ProjectileFlightRay flightRay;
+
+	// Last entity getAttackTarget() resolved to, only trusted while its UUID still matches
+	private WeakReference<LivingEntity> attackTarget;
+
 	public EntitySpellProjectile(EntityType<? extends ThrowableProjectile> type, Level worldIn) {
 		super(type, worldIn);
 	}
@@ -85,16 +126,17 @@ public EntitySpellProjectile(Level world, LivingEntity thrower) {
 
 	public EntitySpellProjectile setInfo(Player player, ItemStack colorizer, ItemStack bullet) {
 		entityData.set(COLORIZER_DATA, colorizer);
-		entityData.set(BULLET_DATA, bullet.copy());
+		setBullet(bullet.copy());
 		entityData.set(CASTER_UUID, Optional.of(player.getUUID()));
 		entityData.set(ATTACKTARGET_UUID, Optional.empty());
+
+		getSpell();
 		return this;
 	}
 
 	@Override
 	protected void defineSynchedData() {
 		entityData.define(COLORIZER_DATA, ItemStack.EMPTY);
-		entityData.define(BULLET_DATA, ItemStack.EMPTY);
 		entityData.define(CASTER_UUID, Optional.empty());
 		entityData.define(ATTACKTARGET_UUID, Optional.empty());
 	}
@@ -111,7 +153,6 @@ public void addAdditionalSaveData(CompoundTag tagCompound) {
 		tagCompound.put(TAG_COLORIZER, colorizerCmp);
 
 		CompoundTag bulletCmp = new CompoundTag();
-		ItemStack bullet = entityData.get(BULLET_DATA);
 		if(!bullet.isEmpty()) {
 			bulletCmp = bullet.save(bulletCmp);
 		}
@@ -122,6 +163,14 @@ public void addAdditionalSaveData(CompoundTag tagCompound) {
 		tagCompound.putDouble(TAG_LAST_MOTION_X, getDeltaMovement().x());
 		tagCompound.putDouble(TAG_LAST_MOTION_Y, getDeltaMovement().y());
 		tagCompound.putDouble(TAG_LAST_MOTION_Z, getDeltaMovement().z());
+
+		if(context != null) {
+			CompoundTag contextCmp = new CompoundTag();
+			context.writeStateToNBT(contextCmp);
+			tagCompound.put(TAG_CONTEXT, contextCmp);
+		} else if(savedContext != null) {
+			tagCompound.put(TAG_CONTEXT, savedContext);
+		}
 	}
 
 	@Override
@@ -133,8 +182,7 @@ public void readAdditionalSaveData(CompoundTag tagCompound) {
 		entityData.set(COLORIZER_DATA, colorizer);
 
 		CompoundTag bulletCmp = tagCompound.getCompound(TAG_BULLET);
-		ItemStack bullet = ItemStack.of(bulletCmp);
-		entityData.set(BULLET_DATA, bullet);
+		setBullet(ItemStack.of(bulletCmp));
 
 		Entity thrower = getOwner();
 		if(thrower instanceof Player) {
@@ -147,17 +195,72 @@ public void readAdditionalSaveData(CompoundTag tagCompound) {
 		double lastMotionY = tagCompound.getDouble(TAG_LAST_MOTION_Y);
 		double lastMotionZ = tagCompound.getDouble(TAG_LAST_MOTION_Z);
 		setDeltaMovement(lastMotionX, lastMotionY, lastMotionZ);
+
+		savedContext = tagCompound.contains(TAG_CONTEXT) ? tagCompound.getCompound(TAG_CONTEXT) : null;
+
+		getSpell();
+	}
+
+	/**
+	 * Gets the bullet this entity casts from. The bullet only exists on the server, it's never synced to clients.
+	 */
+	public ItemStack getBullet() {
+		return bullet;
+	}
+
+	public void setBullet(ItemStack bullet) {
+		this.bullet = bullet;
+		spellResolved = false;
+	}
+
+	/**
+	 * Gets the spell held by the bullet. It's only decoded again when the bullet changes.
+	 */
+	@Nullable
+	public Spell getSpell() {
+		if(!spellResolved) {
+			hasSpellContainer = !bullet.isEmpty() && ISpellAcceptor.isContainer(bullet);
+			spell = hasSpellContainer ? ISpellAcceptor.acceptor(bullet).getSpell() : null;
+			spellResolved = true;
+		}
+
+		return spell;
+	}
+
+	public boolean hasSpellContainer() {
+		getSpell();
+		return hasSpellContainer;
 	}
 
 	@Override
 	public void tick() {
-		super.tick();
+		if(getGravity() == 0F) {
+			flightTick();
+		} else {
+			flightRay = null;
+			super.tick();
+		}
 
 		int timeAlive = tickCount;
 		if(timeAlive > getLiveTime()) {
 			remove(RemovalReason.DISCARDED);
 		}
 
+		if(level.isClientSide()) {
+			spawnParticles();
+		}
+	}
+
+	private void spawnParticles() {
+		double x = getX();
+		double y = getY();
+		double z = getZ();
+
+		int particles = Psi.proxy.getParticleBudget(x, y, z, getParticleCount());
+		if(particles <= 0) {
+			return;
+		}
+
 		ItemStack colorizer = entityData.get(COLORIZER_DATA);
 		int colorVal = Psi.proxy.getColorForColorizer(colorizer);
 
@@ -165,13 +268,10 @@ public void tick() {
 		float g = PsiRenderHelper.g(colorVal) / 255F;
 		float b = PsiRenderHelper.b(colorVal) / 255F;
 
-		double x = getX();
-		double y = getY();
-		double z = getZ();
-
-		Vector3 lookOrig = new Vector3(getDeltaMovement()).normalize();
-		for(int i = 0; i < getParticleCount(); i++) {
-			Vector3 look = lookOrig.copy();
+		Vec3 motion = getDeltaMovement();
+		Vector3 lookOrig = PARTICLE_LOOK_ORIG.set(motion.x, motion.y, motion.z).normalize();
+		for(int i = 0; i < particles; i++) {
+			Vector3 look = PARTICLE_LOOK.set(lookOrig);
 			double spread = 0.6;
 			double dist = 0.15;
 			if(this instanceof EntitySpellGrenade) {
@@ -185,10 +285,7 @@ public void tick() {
 
 			look.normalize().multiply(dist);
 
-			if(level.isClientSide()) {
-				Psi.proxy.sparkleFX(x, y, z, r, g, b, (float) look.x, (float) look.y, (float) look.z, 1.2F, 12);
-			}
-
+			Psi.proxy.sparkleFX(x, y, z, r, g, b, (float) look.x, (float) look.y, (float) look.z, 1.2F, 12);
 		}
 	}
 
@@ -218,18 +315,33 @@ public void cast() {
 	}
 
 	public void cast(Consumer<SpellContext> callback) {
-		Entity thrower = getOwner();
+		cast(getOwner(), null, callback);
+	}
+
+	/**
+	 * Casts with a thrower that was already looked up and, if given, a spell that was already compiled.
+	 * Used when many projectiles cast at once and share those.
+	 */
+	protected void cast(@Nullable Entity thrower, @Nullable CompiledSpell cspell, Consumer<SpellContext> callback) {
 		boolean canCast = false;
 
 		if(thrower instanceof Player) {
-			ItemStack spellContainer = entityData.get(BULLET_DATA);
-			if(!spellContainer.isEmpty() && ISpellAcceptor.isContainer(spellContainer)) {
-				Spell spell = ISpellAcceptor.acceptor(spellContainer).getSpell();
+			if(hasSpellContainer()) {
+				Spell spell = getSpell();
 				if(spell != null) {
 					canCast = true;
 					if(context == null) {
-						context = new SpellContext().setPlayer((Player) thrower).setFocalPoint(this).setSpell(spell);
+						context = new SpellContext().setPlayer((Player) thrower).setFocalPoint(this);
+						if(cspell != null) {
+							context.setCompiledSpell(cspell);
+						} else {
+							context.setSpell(spell);
+						}
+						if(savedContext != null) {
+							context.readStateFromNBT(savedContext);
+						}
 					}
+					savedContext = null;
 					context.setFocalPoint(this);
 				}
 			}
@@ -246,6 +358,11 @@ public void cast(Consumer<SpellContext> callback) {
 		remove(RemovalReason.DISCARDED);
 	}
 
+	@Nullable
+	public UUID getCasterId() {
+		return entityData.get(CASTER_UUID).orElse(null);
+	}
+
 	@Override
 	public Entity getOwner() {
 		Entity superThrower = super.getOwner();
@@ -259,18 +376,133 @@ public Entity getOwner() {
 	}
 
 	public LivingEntity getAttackTarget() {
+		UUID targetId = entityData.get(ATTACKTARGET_UUID).orElse(null);
+		if(targetId == null) {
+			return null;
+		}
+
 		double radiusVal = SpellContext.MAX_DISTANCE;
 		Vector3 positionVal = Vector3.fromVec3d(this.position());
 		AABB axis = new AABB(positionVal.x - radiusVal, positionVal.y - radiusVal, positionVal.z - radiusVal, positionVal.x + radiusVal, positionVal.y + radiusVal, positionVal.z + radiusVal);
-		return entityData.get(ATTACKTARGET_UUID)
-				.map(u -> {
-					List<LivingEntity> a = getCommandSenderWorld().getEntitiesOfClass(LivingEntity.class, axis, (Entity e) -> e.getUUID().equals(u));
-					if(a.size() > 0) {
-						return a.get(0);
-					}
-					return null;
-				})
-				.orElse(null);
+
+		LivingEntity target = attackTarget == null ? null : attackTarget.get();
+		if(target != null && targetId.equals(target.getUUID()) && isValidAttackTarget(target, axis)) {
+			return target;
+		}
+
+		target = null;
+		if(getCommandSenderWorld() instanceof ServerLevel) {
+			Entity entity = ((ServerLevel) getCommandSenderWorld()).getEntity(targetId);
+			if(entity instanceof LivingEntity && isValidAttackTarget((LivingEntity) entity, axis)) {
+				target = (LivingEntity) entity;
+			}
+		} else {
+			List<LivingEntity> a = getCommandSenderWorld().getEntitiesOfClass(LivingEntity.class, axis, (Entity e) -> e.getUUID().equals(targetId));
+			if(a.size() > 0) {
+				target = a.get(0);
+			}
+		}
+
+		attackTarget = target == null ? null : new WeakReference<>(target);
+		return target;
+	}
+
+	private boolean isValidAttackTarget(LivingEntity target, AABB axis) {
+		return !target.isRemoved() && target.level == getCommandSenderWorld() && target.getBoundingBox().intersects(axis);
+	}
+
+	/**
+	 * Same as {@link ThrowableProjectile#tick()} for a projectile without gravity, except the hit check
+	 * goes through {@link #getFlightHitResult(Predicate)}.
+	 */
+	private void flightTick() {
+		AccessorProjectile projectile = (AccessorProjectile) this;
+		if(!projectile.getHasBeenShot()) {
+			gameEvent(GameEvent.PROJECTILE_SHOOT, getOwner());
+			projectile.setHasBeenShot(true);
+		}
+		if(!projectile.getLeftOwner()) {
+			projectile.setLeftOwner(projectile.callCheckLeftOwner());
+		}
+		baseTick();
+
+		HitResult hit = getFlightHitResult(this::canHitEntity);
+		boolean portal = false;
+		if(hit.getType() == HitResult.Type.BLOCK) {
+			BlockPos pos = ((BlockHitResult) hit).getBlockPos();
+			BlockState state = level.getBlockState(pos);
+			if(state.is(Blocks.NETHER_PORTAL)) {
+				handleInsidePortal(pos);
+				portal = true;
+			} else if(state.is(Blocks.END_GATEWAY)) {
+				BlockEntity tile = level.getBlockEntity(pos);
+				if(tile instanceof TheEndGatewayBlockEntity && TheEndGatewayBlockEntity.canEntityTeleport(this)) {
+					TheEndGatewayBlockEntity.teleportEntity(level, pos, state, this, (TheEndGatewayBlockEntity) tile);
+				}
+				portal = true;
+			}
+		}
+
+		if(hit.getType() != HitResult.Type.MISS && !portal && !ForgeEventFactory.onProjectileImpact(this, hit)) {
+			onHit(hit);
+		}
+
+		checkInsideBlocks();
+		Vec3 motion = getDeltaMovement();
+		double x = getX() + motion.x;
+		double y = getY() + motion.y;
+		double z = getZ() + motion.z;
+		updateRotation();
+
+		float drag = 0.99F;
+		if(isInWater()) {
+			for(int i = 0; i < 4; i++) {
+				level.addParticle(ParticleTypes.BUBBLE, x - motion.x * 0.25, y - motion.y * 0.25, z - motion.z * 0.25, motion.x, motion.y, motion.z);
+			}
+			drag = 0.8F;
+		}
+		setDeltaMovement(motion.scale(drag));
+		setPos(x, y, z);
+	}
+
+	/**
+	 * Stands in for {@link ProjectileUtil#getHitResult(Entity, Predicate)} in {@link #flightTick()}.
+	 * Projectiles without gravity fly in a straight line, so their block ray is traced once and reused
+	 * for as long as they stay on it and the blocks they pass through don't change. Only the entity
+	 * check is done every tick.
+	 */
+	private HitResult getFlightHitResult(Predicate<Entity> filter) {
+		Vec3 motion = getDeltaMovement();
+		if(motion.lengthSqr() < 1.0E-7) {
+			flightRay = null;
+			return ProjectileUtil.getHitResult(this, filter);
+		}
+
+		Vec3 pos = position();
+		double speed = motion.length();
+		if(flightRay == null || !flightRay.follows(pos, motion)) {
+			flightRay = ProjectileFlightRay.trace(this, pos, motion);
+		}
+
+		double from = flightRay.distanceTo(pos);
+		if(!flightRay.covers(from + speed) || !flightRay.isUnchanged(level, from, from + speed)) {
+			flightRay = ProjectileFlightRay.trace(this, pos, motion);
+			from = 0;
+			if(!flightRay.covers(speed)) {
+				return ProjectileUtil.getHitResult(this, filter);
+			}
+		}
+
+		Vec3 end = pos.add(motion);
+		HitResult result = flightRay.getHit(from + speed);
+		if(result != null) {
+			end = result.getLocation();
+		} else {
+			result = BlockHitResult.miss(end, Direction.getNearest(-motion.x, -motion.y, -motion.z), new BlockPos(end));
+		}
+
+		EntityHitResult entityHit = ProjectileUtil.getEntityHitResult(level, this, pos, end, getBoundingBox().expandTowards(motion).inflate(1), filter);
+		return entityHit != null ? entityHit : result;
 	}
 
 	@Override
@@ -0,0 +1,163 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.entity;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The block ray of a projectile flying in a straight line. It's traced once, and every tick after that
+ * only the states of the blocks the projectile moves through are compared against the ones seen when tracing.
+ */
+final class ProjectileFlightRay {
+
+	// How far ahead the ray is traced, so it never reaches into chunks that may be unloaded
+	private static final double LOOKAHEAD = 16;
+	private static final double EPSILON = 1.0E-7;
+
+	private final Vec3 origin;
+	private final Vec3 dir;
+	private double length = LOOKAHEAD;
+
+	private long[] positions = new long[32];
+	private BlockState[] states = new BlockState[32];
+	private double[] entries = new double[32];
+	private int count;
+	private int next;
+
+	@Nullable
+	private BlockHitResult hit;
+	private double hitDistance = Double.MAX_VALUE;
+
+	private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+	private ProjectileFlightRay(Vec3 origin, Vec3 dir) {
+		this.origin = origin;
+		this.dir = dir;
+	}
+
+	static ProjectileFlightRay trace(Entity entity, Vec3 origin, Vec3 motion) {
+		ProjectileFlightRay ray = new ProjectileFlightRay(origin, motion.normalize());
+		Level level = entity.level;
+		ClipContext clip = new ClipContext(origin, origin.add(ray.dir.scale(LOOKAHEAD)), ClipContext.Block.COLLIDER, ClipContext.Fluid.NONE, entity);
+
+		BlockGetter.traverseBlocks(clip.getFrom(), clip.getTo(), clip, (ctx, pos) -> {
+			if(!level.isLoaded(pos)) {
+				ray.length = ray.entryOf(pos);
+				return Boolean.TRUE;
+			}
+
+			BlockState state = level.getBlockState(pos);
+			ray.add(pos, state);
+
+			VoxelShape shape = ctx.getBlockShape(state, level, pos);
+			BlockHitResult result = level.clipWithInteractionOverride(ctx.getFrom(), ctx.getTo(), pos, shape, state);
+			if(result != null) {
+				ray.hit = result;
+				ray.hitDistance = ray.origin.distanceTo(result.getLocation());
+				return Boolean.TRUE;
+			}
+			return null;
+		}, ctx -> Boolean.FALSE);
+
+		return ray;
+	}
+
+	/**
+	 * Whether a projectile at the given position and moving with the given motion is still on this ray.
+	 */
+	boolean follows(Vec3 pos, Vec3 motion) {
+		Vec3 offset = pos.subtract(origin);
+		double along = offset.dot(dir);
+		if(along < -EPSILON || along > length) {
+			return false;
+		}
+
+		double speed = motion.length();
+		return motion.dot(dir) >= speed * (1 - EPSILON) && offset.subtract(dir.scale(along)).lengthSqr() < EPSILON;
+	}
+
+	double distanceTo(Vec3 pos) {
+		return Math.max(0, pos.subtract(origin).dot(dir));
+	}
+
+	/**
+	 * Whether the ray was traced far enough to cover up to the given distance.
+	 */
+	boolean covers(double to) {
+		return hit != null || to <= length;
+	}
+
+	/**
+	 * Checks that the blocks between the two distances are the same ones the ray was traced through.
+	 */
+	boolean isUnchanged(Level level, double from, double to) {
+		while(next + 1 < count && entries[next + 1] <= from) {
+			next++;
+		}
+
+		for(int i = next; i < count && entries[i] <= to; i++) {
+			if(level.getBlockState(cursor.set(positions[i])) != states[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the block hit if it's no farther than the given distance.
+	 */
+	@Nullable
+	BlockHitResult getHit(double to) {
+		return hit != null && hitDistance <= to ? hit : null;
+	}
+
+	private void add(BlockPos pos, BlockState state) {
+		if(count == positions.length) {
+			positions = Arrays.copyOf(positions, count * 2);
+			states = Arrays.copyOf(states, count * 2);
+			entries = Arrays.copyOf(entries, count * 2);
+		}
+
+		positions[count] = pos.asLong();
+		states[count] = state;
+		entries[count] = entryOf(pos);
+		count++;
+	}
+
+	// Distance along the ray at which it enters the given block
+	private double entryOf(BlockPos pos) {
+		double t = axisEntry(origin.x, dir.x, pos.getX());
+		t = Math.max(t, axisEntry(origin.y, dir.y, pos.getY()));
+		t = Math.max(t, axisEntry(origin.z, dir.z, pos.getZ()));
+		return Math.max(t, 0);
+	}
+
+	private static double axisEntry(double origin, double dir, int block) {
+		if(dir > 0) {
+			return (block - origin) / dir;
+		}
+		if(dir < 0) {
+			return (block + 1 - origin) / dir;
+		}
+		return -Double.MAX_VALUE;
+	}
+
+}
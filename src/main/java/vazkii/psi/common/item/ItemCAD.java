@@ -113,6 +113,11 @@ private ICADData getCADData(ItemStack stack) {
 		return stack.getCapability(PsiAPI.CAD_DATA_CAPABILITY).orElseGet(() -> new CADData(stack));
 	}
 
+	private CADData getCADDataImpl(ItemStack stack) {
+		ICADData data = getCADData(stack);
+		return data instanceof CADData ? (CADData) data : new CADData(stack);
+	}
+
 	private ISocketable getSocketable(ItemStack stack) {
 		return stack.getCapability(PsiAPI.SOCKETABLE_CAPABILITY).orElseGet(() -> new CADData(stack));
 	}
@@ -437,6 +442,12 @@ public static ItemStack makeCAD(ItemStack base, List<ItemStack> components) {
 		return stack;
 	}
 
+	@Override
+	public void setCADComponent(ItemStack stack, ItemStack component) {
+		ICAD.super.setCADComponent(stack, component);
+		getCADDataImpl(stack).invalidateStats();
+	}
+
 	@Override
 	public ItemStack getComponentInSlot(ItemStack stack, EnumCADComponent type) {
 		String name = TAG_COMPONENT_PREFIX + type.name();
@@ -451,12 +462,9 @@ public ItemStack getComponentInSlot(ItemStack stack, EnumCADComponent type) {
 
 	@Override
 	public int getStatValue(ItemStack stack, EnumCADStat stat) {
-		int statValue = 0;
-		ItemStack componentStack = getComponentInSlot(stack, stat.getSourceType());
-		if(!componentStack.isEmpty() && componentStack.getItem() instanceof ICADComponent) {
-			ICADComponent component = (ICADComponent) componentStack.getItem();
-			statValue = component.getCADStatValue(componentStack, stat);
-		}
+		CADData data = getCADDataImpl(stack);
+		int statValue = data.getComponentStatValue(stat);
+		ItemStack componentStack = data.getStatComponent(stat);
 
 		CADStatEvent event = new CADStatEvent(stat, stack, componentStack, statValue);
 		MinecraftForge.EVENT_BUS.post(event);
@@ -30,7 +30,7 @@ public ArrayList<Entity> castSpell(ItemStack stack, SpellContext context) {
 		if(!data.loopcasting || context.castFrom != data.loopcastHand) {
 			data.loopcasting = true;
 			data.loopcastHand = context.castFrom;
-			data.lastTickLoopcastStack = null;
+			data.loopcastItem = null;
 			data.loopcastTime = 1;
 			data.loopcastAmount = 0;
 			context.cspell.safeExecute(context);
@@ -136,6 +136,11 @@ public void onEvent(ItemStack stack, PsiArmorEvent event) {
 		}
 	}
 
+	@Override
+	public boolean listensTo(ItemStack stack, String type) {
+		return type.equals(getTrueEvent(stack));
+	}
+
 	public String getEvent(ItemStack stack) {
 		return PsiArmorEvent.NONE;
 	}
@@ -21,7 +21,7 @@
 import vazkii.psi.common.network.message.*;
 
 public class MessageRegister {
-	private static final String VERSION = "3";
+	private static final String VERSION = "4";
 
 	public static final SimpleChannel HANDLER = NetworkRegistry.newSimpleChannel(new ResourceLocation(LibMisc.MOD_ID, "main"),
 			() -> VERSION,
@@ -90,6 +90,10 @@ public static void init() {
 				.encoder(MessageSpellError::encode)
 				.decoder(MessageSpellError::new)
 				.consumerMainThread(MessageSpellError::receive).add();
+		HANDLER.messageBuilder(MessageConjuredColors.class, id++)
+				.encoder(MessageConjuredColors::encode)
+				.decoder(MessageConjuredColors::new)
+				.consumerMainThread(MessageConjuredColors::receive).add();
 	}
 
 	public static void writeVec3d(FriendlyByteBuf buf, Vec3 vec3d) {
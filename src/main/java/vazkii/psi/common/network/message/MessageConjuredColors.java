@@ -0,0 +1,93 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.network.message;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.network.NetworkEvent;
+
+import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.capability.ConjuredColorPalette;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sends the colorizers of conjured blocks in a chunk, either all of them, replacing what the client had,
+ * or only the ones that changed. An empty colorizer removes the entry.
+ */
+public class MessageConjuredColors {
+
+	private final ChunkPos chunk;
+	private final boolean replace;
+	private final List<BlockPos> positions;
+	private final List<ItemStack> colorizers;
+
+	public MessageConjuredColors(ChunkPos chunk, boolean replace) {
+		this.chunk = chunk;
+		this.replace = replace;
+		positions = new ArrayList<>();
+		colorizers = new ArrayList<>();
+	}
+
+	public MessageConjuredColors(FriendlyByteBuf buf) {
+		chunk = buf.readChunkPos();
+		replace = buf.readBoolean();
+		int size = buf.readVarInt();
+		positions = new ArrayList<>(size);
+		colorizers = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			positions.add(buf.readBlockPos());
+			colorizers.add(buf.readItem());
+		}
+	}
+
+	public void add(BlockPos pos, ItemStack colorizer) {
+		positions.add(pos);
+		colorizers.add(colorizer);
+	}
+
+	public void encode(FriendlyByteBuf buf) {
+		buf.writeChunkPos(chunk);
+		buf.writeBoolean(replace);
+		buf.writeVarInt(positions.size());
+		for(int i = 0; i < positions.size(); i++) {
+			buf.writeBlockPos(positions.get(i));
+			buf.writeItem(colorizers.get(i));
+		}
+	}
+
+	public boolean receive(Supplier<NetworkEvent.Context> context) {
+		context.get().enqueueWork(() -> {
+			Level world = Psi.proxy.getClientWorld();
+			if(world == null) {
+				return;
+			}
+
+			LevelChunk levelChunk = world.getChunkSource().getChunkNow(chunk.x, chunk.z);
+			ConjuredColorPalette palette = levelChunk == null ? null : ConjuredColorPalette.get(levelChunk);
+			if(palette != null) {
+				if(replace) {
+					palette.clear();
+				}
+				for(int i = 0; i < positions.size(); i++) {
+					palette.setColorizer(positions.get(i), colorizers.get(i));
+				}
+			}
+		});
+
+		return true;
+	}
+
+}
@@ -11,6 +11,7 @@
 import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.item.crafting.SmeltingRecipe;
@@ -19,10 +20,14 @@
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellContext;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 public class PieceSelectorNearbySmeltables extends PieceSelectorNearby {
 	private static final SimpleContainer DUMMY_INV = new SimpleContainer(3);
+	// Smelting result of each item, empty if it can't be smelted
+	private static final Map<Item, ItemStack> SMELT_RESULTS = new ConcurrentHashMap<>();
 
 	public PieceSelectorNearbySmeltables(Spell spell) {
 		super(spell);
@@ -33,7 +38,30 @@ public Predicate<Entity> getTargetPredicate(SpellContext context) {
 		return this::accept;
 	}
 
+	/**
+	 * Forgets the smelting result of every item, the recipes may have changed.
+	 */
+	public static void clearSmeltCache() {
+		SMELT_RESULTS.clear();
+	}
+
+	/**
+	 * Gets what the input would smelt into, or an empty stack if it can't be smelted.
+	 * Results for stacks without a tag are remembered per item, since recipes can only match those by item.
+	 * The result must not be modified.
+	 */
 	public static ItemStack simulateSmelt(Level world, ItemStack input) {
+		if(input.isEmpty()) {
+			return ItemStack.EMPTY;
+		}
+		if(input.hasTag()) {
+			return findSmeltResult(world, input);
+		}
+
+		return SMELT_RESULTS.computeIfAbsent(input.getItem(), item -> findSmeltResult(world, new ItemStack(item)));
+	}
+
+	private static ItemStack findSmeltResult(Level world, ItemStack input) {
 		DUMMY_INV.clearContent();
 		DUMMY_INV.setItem(0, input);
 		return world.getRecipeManager().getRecipeFor(RecipeType.SMELTING, DUMMY_INV, world)
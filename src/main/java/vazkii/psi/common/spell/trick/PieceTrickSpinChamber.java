@@ -72,7 +72,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		capability.setSelectedSlot(targetSlot);
 
 		if(updateLoopcast) {
-			PlayerDataHandler.get(context.caster).lastTickLoopcastStack = stack.copy();
+			PlayerDataHandler.get(context.caster).snapshotLoopcast(stack);
 		}
 		return null;
 	}
@@ -18,16 +18,23 @@
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.enchantment.Enchantments;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.LevelEvent;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.extensions.IForgeBlock;
+import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.event.level.BlockEvent.BreakEvent;
 
 import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.internal.ChunkAccessCache;
+import vazkii.psi.api.internal.SpellDropCollector;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
+import vazkii.psi.api.spell.SpellBlockBreakBatchEvent;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellMetadata;
@@ -38,7 +45,12 @@
 import vazkii.psi.api.spell.piece.PieceTrick;
 import vazkii.psi.common.core.handler.ConfigHandler;
 
+import javax.annotation.Nullable;
+
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -92,21 +104,29 @@ public static void removeBlockWithDrops(SpellContext context, Player player, Lev
 			stack = PsiAPI.getPlayerCAD(player);
 		}
 
-		if(!world.hasChunkAt(pos)) {
+		ChunkAccessCache chunks = context.getChunkCache();
+		if(!chunks.isLoaded(pos)) {
 			return;
 		}
 
-		BlockState blockstate = world.getBlockState(pos);
+		BlockState blockstate = chunks.getBlockState(pos);
 		boolean unminable = blockstate.getDestroySpeed(world, pos) == -1;
 
 		if(!world.isClientSide && !unminable && filter.test(blockstate) && !blockstate.isAir()) {
+			ServerPlayer serverPlayer = (ServerPlayer) player;
 			ItemStack save = player.getMainHandItem();
 			boolean wasChecking = doingHarvestCheck.get();
 			doingHarvestCheck.set(true);
 			player.setItemInHand(InteractionHand.MAIN_HAND, stack);
-			((ServerPlayer) player).connection.send(
-					new ClientboundLevelEventPacket(LevelEvent.PARTICLES_DESTROY_BLOCK, pos, Block.getId(blockstate), false));
-			((ServerPlayer) player).gameMode.destroyBlock(pos);
+			if(ConfigHandler.COMMON.aggregateSpellDrops.get()) {
+				SpellDropCollector drops = context.getDropCollector();
+				drops.addBreakEffect(serverPlayer, pos, blockstate);
+				drops.capture(() -> serverPlayer.gameMode.destroyBlock(pos));
+			} else {
+				serverPlayer.connection.send(
+						new ClientboundLevelEventPacket(LevelEvent.PARTICLES_DESTROY_BLOCK, pos, Block.getId(blockstate), false));
+				serverPlayer.gameMode.destroyBlock(pos);
+			}
 			doingHarvestCheck.set(wasChecking);
 			player.setItemInHand(InteractionHand.MAIN_HAND, save);
 		}
@@ -129,12 +149,45 @@ public static BreakEvent createBreakEvent(BlockState state, Player player, Level
 		return event;
 	}
 
+	/**
+	 * Checks whether the player may break each of the given blocks. A {@link SpellBlockBreakBatchEvent} is posted
+	 * first, and if no listener handles it, a break event for each block.
+	 *
+	 * @param tool         the tool the blocks are broken with, or null if they aren't harvested
+	 * @param stopAtDenied whether to stop posting break events after the first block that may not be broken
+	 * @return which of the blocks the player may not break
+	 */
+	public static BitSet postBreakEvents(Level world, Player player, @Nullable ItemStack tool, long[] positions, BlockState[] states, int size, boolean stopAtDenied) {
+		SpellBlockBreakBatchEvent batch = new SpellBlockBreakBatchEvent(world, player, positions, states, size);
+		MinecraftForge.EVENT_BUS.post(batch);
+		if(batch.isHandled()) {
+			return batch.getDenied();
+		}
+
+		BitSet denied = new BitSet(size);
+		for(int i = 0; i < size; i++) {
+			BlockPos pos = BlockPos.of(positions[i]);
+			BreakEvent event = tool == null ? new BreakEvent(world, pos, states[i], player) : createBreakEvent(states[i], player, world, pos, tool);
+			if(MinecraftForge.EVENT_BUS.post(event)) {
+				denied.set(i);
+				if(stopAtDenied) {
+					break;
+				}
+			}
+		}
+		return denied;
+	}
+
 	/**
 	 * Item stack aware harvest check
 	 * Also sets global state {@link PieceTrickBreakBlock#doingHarvestCheck} to true during the check
 	 * //@see IForgeBlockState#canHarvestBlock(IBlockReader, BlockPos, PlayerEntity)
 	 */
 	public static boolean canHarvestBlock(BlockState state, Player player, Level world, BlockPos pos, ItemStack stack) {
+		if(!overridesHarvestCheck(state.getBlock())) {
+			return canHarvestBlock(state, player, stack);
+		}
+
 		// So the CAD can only be used as a tool when a harvest check is ongoing
 		boolean wasChecking = doingHarvestCheck.get();
 		doingHarvestCheck.set(true);
@@ -156,6 +209,38 @@ public static boolean canHarvestBlock(BlockState state, Player player, Level wor
 		return canHarvest;
 	}
 
+	/**
+	 * Same as {@link #canHarvestBlock(BlockState, Player, Level, BlockPos, ItemStack)}, but the stack is
+	 * checked directly instead of being swapped into the player's main hand, so the inventory is never touched.
+	 * Blocks that override {@link IForgeBlock#canHarvestBlock(BlockState, BlockGetter, BlockPos, Player)} aren't asked,
+	 * use the other overload for those.
+	 * //@see ForgeHooks#isCorrectToolForDrops(BlockState, Player)
+	 */
+	public static boolean canHarvestBlock(BlockState state, Player player, ItemStack stack) {
+		// So the CAD can only be used as a tool when a harvest check is ongoing
+		boolean wasChecking = doingHarvestCheck.get();
+		doingHarvestCheck.set(true);
+
+		boolean correctTool = !state.requiresCorrectToolForDrops() || stack.isCorrectToolForDrops(state);
+
+		// Reset the harvest check to its previous value
+		doingHarvestCheck.set(wasChecking);
+		return ForgeEventFactory.doPlayerHarvestCheck(player, state, correctTool);
+	}
+
+	/**
+	 * Whether the block has its own harvest check instead of Forge's default, which only asks the held tool.
+	 */
+	private static boolean overridesHarvestCheck(Block block) {
+		return HARVEST_CHECK_OVERRIDES.computeIfAbsent(block.getClass(), c -> {
+			try {
+				return c.getMethod("canHarvestBlock", BlockState.class, BlockGetter.class, BlockPos.class, Player.class).getDeclaringClass() != IForgeBlock.class;
+			} catch (NoSuchMethodException e) {
+				return true;
+			}
+		});
+	}
+
 	private static List<ItemStack> stacks(Item... items) {
 		return Stream.of(items).map(ItemStack::new).collect(Collectors.toList());
 	}
@@ -168,35 +253,51 @@ private static List<ItemStack> stacks(Item... items) {
 			stacks(Items.NETHERITE_PICKAXE, Items.NETHERITE_AXE, Items.NETHERITE_HOE, Items.NETHERITE_SHOVEL)
 	);
 
-	public static boolean canHarvest(int harvestLevel, BlockState state) {
-		return !getTool(harvestLevel, state).isEmpty();
+	// Bits 0 to 4 are set if a tool of that level can harvest the state, bit 5 if it can be harvested by hand
+	private static final int BY_HAND = 1 << HARVEST_TOOLS_BY_LEVEL.size();
+	private static final Map<BlockState, Integer> HARVEST_MASKS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Boolean> HARVEST_CHECK_OVERRIDES = new ConcurrentHashMap<>();
+
+	/**
+	 * Forgets the harvestability of every state, the tags tools are checked against may have changed.
+	 */
+	public static void clearHarvestCache() {
+		HARVEST_MASKS.clear();
+	}
+
+	private static int getHarvestMask(BlockState state) {
+		return HARVEST_MASKS.computeIfAbsent(state, s -> {
+			int mask = Items.AIR.isCorrectToolForDrops(s) ? BY_HAND : 0;
+			for(int i = 0; i < HARVEST_TOOLS_BY_LEVEL.size(); i++) {
+				for(var tool : HARVEST_TOOLS_BY_LEVEL.get(i)) {
+					if(tool.isCorrectToolForDrops(s)) {
+						mask |= 1 << i;
+						break;
+					}
+				}
+			}
+			return mask;
+		});
 	}
 
-	private static ItemStack getTool(int harvestLevel, BlockState state) {
+	public static boolean canHarvest(int harvestLevel, BlockState state) {
 		if(!state.requiresCorrectToolForDrops()) {
-			return HARVEST_TOOLS_BY_LEVEL.get(0).get(0);
+			return true;
 		}
 
 		int idx = Math.min(harvestLevel, HARVEST_TOOLS_BY_LEVEL.size() - 1);
-		for(var tool : HARVEST_TOOLS_BY_LEVEL.get(idx)) {
-			if(tool.isCorrectToolForDrops(state)) {
-				return tool;
-			}
-		}
-
-		return ItemStack.EMPTY;
+		return (getHarvestMask(state) & 1 << idx) != 0;
 	}
 
 	//TODO Fix mining level on blocks that can be broken by hand.
 	public static int getHarvestLevel(BlockState state) {
-		if(Items.AIR.isCorrectToolForDrops(state)) {
+		int mask = getHarvestMask(state);
+		if((mask & BY_HAND) != 0) {
 			return 0;
 		}
 		for(int i = 0; i < HARVEST_TOOLS_BY_LEVEL.size(); i++) {
-			for(var tool : HARVEST_TOOLS_BY_LEVEL.get(i)) {
-				if(tool.isCorrectToolForDrops(state)) {
-					return i + 1;
-				}
+			if((mask & 1 << i) != 0) {
+				return i + 1;
 			}
 		}
 		return HARVEST_TOOLS_BY_LEVEL.size() + 1;
@@ -10,13 +10,16 @@
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 
+import vazkii.psi.api.internal.BlockMutationBatch;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellHelpers;
 import vazkii.psi.api.spell.SpellMetadata;
 import vazkii.psi.api.spell.SpellParam;
 import vazkii.psi.api.spell.SpellRuntimeException;
@@ -69,12 +72,17 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		Vector3 targetNorm = targetVal.copy().normalize();
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
-			if(!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
-				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
-			}
-			PieceTrickBreakBlock.removeBlockWithDrops(context, context.caster, context.focalPoint.getCommandSenderWorld(), tool, blockPos, (v) -> true);
+		long[] positions = MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt);
+		SpellHelpers.ensureBlocksInRadius(context, positions);
 
+		Level world = context.focalPoint.getCommandSenderWorld();
+		BlockMutationBatch batch = BlockMutationBatch.begin(world);
+		try {
+			for(long packed : positions) {
+				PieceTrickBreakBlock.removeBlockWithDrops(context, context.caster, world, tool, BlockPos.of(packed), (v) -> true);
+			}
+		} finally {
+			batch.commit();
 		}
 
 		return null;
@@ -16,6 +16,7 @@
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.level.BlockEvent;
 
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.*;
 import vazkii.psi.api.spell.param.ParamVector;
@@ -58,11 +59,15 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 		Level world = context.focalPoint.getCommandSenderWorld();
 		BlockPos pos = positionVal.toBlockPos();
+		ChunkAccessCache chunks = context.getChunkCache();
+		if(!chunks.isLoaded(pos)) {
+			return null;
+		}
 		BlockPos posDown = pos.below();
-		BlockState state = world.getBlockState(pos);
-		BlockState stateDown = world.getBlockState(posDown);
+		BlockState state = chunks.getBlockState(pos);
+		BlockState stateDown = chunks.getBlockState(posDown);
 
-		if(!world.mayInteract(context.caster, pos)) {
+		if(!chunks.mayInteract(context.caster, pos)) {
 			return null;
 		}
 
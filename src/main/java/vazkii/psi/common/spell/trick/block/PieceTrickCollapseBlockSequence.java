@@ -17,6 +17,7 @@
 import net.minecraftforge.event.level.BlockEvent;
 
 import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.*;
@@ -72,16 +73,21 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		Level world = context.focalPoint.level;
+		ChunkAccessCache chunks = context.getChunkCache();
 		Vector3 targetNorm = targetVal.copy().normalize();
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
-			if(!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
+		for(long packed : MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
+			BlockPos blockPos = BlockPos.of(packed);
+			if(!context.isInRadius(blockPos.getX(), blockPos.getY(), blockPos.getZ())) {
 				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 			}
+			if(!chunks.isLoaded(blockPos)) {
+				continue;
+			}
 			BlockPos posDown = blockPos.below();
-			BlockState state = world.getBlockState(blockPos);
-			BlockState stateDown = world.getBlockState(posDown);
+			BlockState state = chunks.getBlockState(blockPos);
+			BlockState stateDown = chunks.getBlockState(posDown);
 
-			if(!world.mayInteract(context.caster, blockPos)) {
+			if(!chunks.mayInteract(context.caster, blockPos)) {
 				return null;
 			}
 
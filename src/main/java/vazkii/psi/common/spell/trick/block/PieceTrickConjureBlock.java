@@ -9,15 +9,16 @@
 package vazkii.psi.common.spell.trick.block;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.cad.EnumCADComponent;
 import vazkii.psi.api.cad.ICAD;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
@@ -32,7 +33,7 @@
 import vazkii.psi.api.spell.piece.PieceTrick;
 import vazkii.psi.common.block.BlockConjured;
 import vazkii.psi.common.block.base.ModBlocks;
-import vazkii.psi.common.block.tile.TileConjured;
+import vazkii.psi.common.core.handler.ConjuredBlockHandler;
 
 import javax.annotation.Nullable;
 
@@ -80,7 +81,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 		Level world = context.focalPoint.getCommandSenderWorld();
 
-		if(!world.mayInteract(context.caster, pos)) {
+		if(!context.getChunkCache().mayInteract(context.caster, pos)) {
 			return null;
 		}
 
@@ -90,18 +91,16 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 	}
 
 	public static void conjure(SpellContext context, @Nullable Number timeVal, BlockPos pos, Level world, BlockState state) {
-		if(world.getBlockState(pos).getBlock() != state.getBlock()) {
+		ChunkAccessCache chunks = context.getChunkCache();
+		if(chunks.isLoaded(pos) && chunks.getBlockState(pos).getBlock() != state.getBlock()) {
 			if(conjure(world, pos, context.caster, state)) {
-				if(timeVal != null && timeVal.intValue() > 0) {
-					int val = timeVal.intValue();
-					world.scheduleTick(pos, state.getBlock(), val);
+				if(timeVal != null && timeVal.intValue() > 0 && world instanceof ServerLevel) {
+					ConjuredBlockHandler.scheduleExpiry((ServerLevel) world, pos, timeVal.intValue());
 				}
 
-				BlockEntity tile = world.getBlockEntity(pos);
-
 				ItemStack cad = PsiAPI.getPlayerCAD(context.caster);
-				if(tile instanceof TileConjured && !cad.isEmpty()) {
-					((TileConjured) tile).colorizer = ((ICAD) cad.getItem()).getComponentInSlot(cad, EnumCADComponent.DYE);
+				if(!cad.isEmpty()) {
+					BlockConjured.setColorizer(world, pos, ((ICAD) cad.getItem()).getComponentInSlot(cad, EnumCADComponent.DYE));
 				}
 
 			}
@@ -12,12 +12,15 @@
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 
+import vazkii.psi.api.internal.BlockMutationBatch;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellHelpers;
 import vazkii.psi.api.spell.SpellMetadata;
 import vazkii.psi.api.spell.SpellParam;
 import vazkii.psi.api.spell.SpellRuntimeException;
@@ -76,16 +79,23 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		Vector3 targetNorm = targetVal.copy().normalize();
 		Level world = context.focalPoint.getCommandSenderWorld();
 
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
-			if(!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
-				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
-			}
+		long[] positions = MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt);
+		SpellHelpers.ensureBlocksInRadius(context, positions);
 
-			if(!world.mayInteract(context.caster, blockPos)) {
-				continue;
-			}
+		BlockState state = messWithState(ModBlocks.conjured.defaultBlockState());
+		ChunkAccessCache chunks = context.getChunkCache();
+		BlockMutationBatch batch = BlockMutationBatch.begin(world);
+		try {
+			for(long packed : positions) {
+				BlockPos blockPos = BlockPos.of(packed);
+				if(!chunks.mayInteract(context.caster, blockPos)) {
+					continue;
+				}
 
-			PieceTrickConjureBlock.conjure(context, timeVal, blockPos, world, messWithState(ModBlocks.conjured.defaultBlockState()));
+				PieceTrickConjureBlock.conjure(context, timeVal, blockPos, world, state);
+			}
+		} finally {
+			batch.commit();
 		}
 
 		return null;
@@ -17,6 +17,7 @@
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.level.BlockEvent;
 
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
@@ -81,7 +82,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		if(context.positionBroken != null && context.positionBroken.getBlockPos().equals(pos)) {
 			return null;
 		}
-		BlockState state = world.getBlockState(pos);
+		ChunkAccessCache chunks = context.getChunkCache();
+		if(!chunks.isLoaded(pos)) {
+			return null;
+		}
+		BlockState state = chunks.getBlockState(pos);
 		if(world.getBlockEntity(pos) != null || state.getPistonPushReaction() != PushReaction.NORMAL ||
 				state.getDestroySpeed(world, pos) == -1 ||
 				!PieceTrickBreakBlock.canHarvestBlock(state, context.caster, world, pos, tool)) {
@@ -103,9 +108,12 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		int y = pos.getY() + (int) axis.y;
 		int z = pos.getZ() + (int) axis.z;
 		BlockPos pos1 = new BlockPos(x, y, z);
-		BlockState state1 = world.getBlockState(pos1);
+		if(!chunks.isLoaded(pos1)) {
+			return null;
+		}
+		BlockState state1 = chunks.getBlockState(pos1);
 
-		if(!world.mayInteract(context.caster, pos) || !world.mayInteract(context.caster, pos1)) {
+		if(!chunks.mayInteract(context.caster, pos) || !chunks.mayInteract(context.caster, pos1)) {
 			return null;
 		}
 
@@ -8,14 +8,18 @@
  */
 package vazkii.psi.common.spell.trick.block;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.PushReaction;
-import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.level.BlockEvent;
 
+import vazkii.psi.api.internal.BlockMutationBatch;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
@@ -31,12 +35,18 @@
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceTrick;
 
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
+import java.util.BitSet;
 
 public class PieceTrickMoveBlockSequence extends PieceTrick {
 
+	private static final byte EMPTY = 0;
+	private static final byte IMMOVABLE = 1;
+	private static final byte MOVEABLE = 2;
+
+	private static final byte UNKNOWN = 0;
+	private static final byte FREE = 1;
+	private static final byte BLOCKED = 2;
+
 	SpellParam<Vector3> position;
 	SpellParam<Vector3> target;
 	SpellParam<Vector3> direction;
@@ -72,16 +82,23 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		Vector3 targetVal = SpellHelpers.getVector3(this, context, target, false, false);
 		int maxBlocksVal = this.getParamValue(context, maxBlocks).intValue();
 		Level world = context.focalPoint.level;
-
-		Map<BlockPos, BlockState> toSet = new HashMap<>();
-		Map<BlockPos, BlockState> toRemove = new HashMap<>();
-
 		Vector3 directNorm = directionVal.copy().normalize();
+		// Normalizing an axial vector can leave 0.9999999999999999, so round instead of truncating
+		int dx = (int) Math.round(directNorm.x);
+		int dy = (int) Math.round(directNorm.y);
+		int dz = (int) Math.round(directNorm.z);
+		if(dx == 0 && dy == 0 && dz == 0) {
+			return null;
+		}
+
 		Vector3 targetNorm = targetVal.copy().normalize();
 
-		LinkedHashSet<BlockPos> positions = MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksVal)).toVec3D(), maxBlocksVal);
-		LinkedHashSet<BlockPos> moveableBlocks = new LinkedHashSet<>();
-		LinkedHashSet<BlockPos> immovableBlocks = new LinkedHashSet<>();
+		long[] positions = MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksVal)).toVec3D(), maxBlocksVal);
+		int count = positions.length;
+		BlockState[] states = new BlockState[count];
+		byte[] kinds = new byte[count];
+		Long2IntMap indices = new Long2IntOpenHashMap(count);
+		indices.defaultReturnValue(-1);
 
 		/*
 		 * TODO: Find a better solution than this bandaid for block duping (see #740)
@@ -91,14 +108,29 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		 * Since there are legitimate use cases besides duping when you want to move a block that is in the same
 		 * position that you previously had broken.
 		 */
-		if(context.positionBroken != null) {
-			immovableBlocks.add(context.positionBroken.getBlockPos());
-		}
-
-		for(BlockPos blockPos : positions) {
-			BlockState state = world.getBlockState(blockPos);
+		long broken = context.positionBroken != null ? context.positionBroken.getBlockPos().asLong() : Long.MAX_VALUE;
+
+		// Blocks that passed every other check, their break events are posted together below
+		long[] candidates = new long[count];
+		BlockState[] candidateStates = new BlockState[count];
+		int[] candidateIndices = new int[count];
+		int candidateCount = 0;
+
+		ChunkAccessCache chunks = context.getChunkCache();
+		BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+		for(int i = 0; i < count; i++) {
+			BlockPos blockPos = cursor.set(positions[i]);
+			BlockState state = chunks.getBlockState(blockPos);
+			states[i] = state;
+			indices.put(positions[i], i);
+
+			if(!chunks.isLoaded(blockPos)) {
+				kinds[i] = IMMOVABLE;
+				continue;
+			}
 
-			if(world.isEmptyBlock(blockPos)) {
+			if(state.isAir()) {
+				kinds[i] = EMPTY;
 				continue;
 			}
 
@@ -107,67 +139,93 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 					state.getDestroySpeed(world, blockPos) == -1 ||
 					!PieceTrickBreakBlock.canHarvestBlock(state, context.caster, world, blockPos, context.getHarvestTool()) ||
 					!SpellHelpers.isBlockPosInRadius(context, blockPos) ||
-					!world.mayInteract(context.caster, blockPos)) {
-				immovableBlocks.add(blockPos);
+					!chunks.mayInteract(context.caster, blockPos)) {
+				kinds[i] = IMMOVABLE;
 				continue;
 			}
 
-			BlockPos pushToPos = blockPos.offset(directNorm.x, directNorm.y, directNorm.z);
-			boolean isOffWorld = pushToPos.getY() < 0 || pushToPos.getY() > 256;
+			int pushToY = blockPos.getY() + dy;
+			boolean isOffWorld = pushToY < 0 || pushToY > 256;
 			if(isOffWorld) {
-				immovableBlocks.add(blockPos);
+				kinds[i] = IMMOVABLE;
 				continue;
 			}
 
-			BlockEvent.BreakEvent event = new BlockEvent.BreakEvent(world, blockPos, state, context.caster);
+			kinds[i] = MOVEABLE;
+			candidates[candidateCount] = positions[i];
+			candidateStates[candidateCount] = state;
+			candidateIndices[candidateCount++] = i;
+		}
+
+		BitSet denied = PieceTrickBreakBlock.postBreakEvents(world, context.caster, null, candidates, candidateStates, candidateCount, false);
+		for(int c = denied.nextSetBit(0); c >= 0; c = denied.nextSetBit(c + 1)) {
+			kinds[candidateIndices[c]] = IMMOVABLE;
+		}
 
-			if(MinecraftForge.EVENT_BUS.post(event)) {
-				immovableBlocks.add(blockPos);
+		// Whether each moveable block has room to move, filled in one run of moveable blocks at a time
+		byte[] results = new byte[count];
+		long[] targets = new long[count];
+		IntArrayList run = new IntArrayList();
+		for(int i = 0; i < count; i++) {
+			if(kinds[i] != MOVEABLE) {
 				continue;
 			}
-			moveableBlocks.add(blockPos);
-		}
 
-		outer: for(BlockPos blockPos : moveableBlocks) {
-			BlockState state = world.getBlockState(blockPos);
-			BlockPos pushToPos = blockPos.offset(directNorm.x, directNorm.y, directNorm.z);
-			BlockState pushToState = world.getBlockState(pushToPos);
-			if(immovableBlocks.contains(pushToPos) || immovableBlocks.contains(blockPos)) {
+			targets[i] = BlockPos.offset(positions[i], dx, dy, dz);
+			if(results[i] != UNKNOWN) {
 				continue;
 			}
-			if(moveableBlocks.contains(pushToPos)) {
-				BlockPos nextPos = pushToPos;
-				while(moveableBlocks.contains(nextPos)) {
-					BlockPos nextPosPushPos = nextPos.offset(directNorm.x, directNorm.y, directNorm.z);
-					BlockState nextPosPushPosState = world.getBlockState(nextPosPushPos);
-
-					if(moveableBlocks.contains(nextPosPushPos)) {
-						nextPos = nextPosPushPos;
-						continue;
-					}
-
-					if(immovableBlocks.contains(nextPosPushPos) || !(world.isEmptyBlock(nextPosPushPos) || nextPosPushPosState.getMaterial().isReplaceable())) {
-						continue outer;
-					}
-					break;
+
+			// Follow the run of moveable blocks in front of this one, until one whose result is known or the first block that isn't moveable
+			run.clear();
+			int j = i;
+			byte result = UNKNOWN;
+			while(result == UNKNOWN) {
+				run.add(j);
+				long next = BlockPos.offset(positions[j], dx, dy, dz);
+				int k = indices.get(next);
+				if(k == j) {
+					result = BLOCKED;
+				} else if(k >= 0 && kinds[k] == MOVEABLE) {
+					result = results[k];
+					j = k;
+				} else {
+					BlockState nextState = k >= 0 ? states[k] : chunks.getBlockState(cursor.set(next));
+					boolean free = (k >= 0 ? kinds[k] == EMPTY : chunks.isLoaded(cursor)) && next != broken && (nextState.isAir() || nextState.getMaterial().isReplaceable());
+					result = free ? FREE : BLOCKED;
 				}
-			} else if(!(world.isEmptyBlock(pushToPos) || pushToState.getMaterial().isReplaceable())) {
-				continue;
 			}
-			toRemove.put(blockPos, state);
-			toSet.put(pushToPos, state);
-		}
 
-		for(Map.Entry<BlockPos, BlockState> pairtoRemove : toRemove.entrySet()) {
-			context.focalPoint.level.removeBlock(pairtoRemove.getKey(), true);
-			context.focalPoint.level.levelEvent(2001, pairtoRemove.getKey(), Block.getId(pairtoRemove.getValue()));
+			for(int r = 0; r < run.size(); r++) {
+				results[run.getInt(r)] = result;
+			}
 		}
 
-		for(Map.Entry<BlockPos, BlockState> pairToSet : toSet.entrySet()) {
-			context.focalPoint.level.setBlockAndUpdate(pairToSet.getKey(), pairToSet.getValue());
+		BlockMutationBatch batch = BlockMutationBatch.begin(world);
+		try {
+			for(int i = 0; i < count; i++) {
+				if(canMove(kinds, results, positions, targets, broken, i)) {
+					BlockPos blockPos = BlockPos.of(positions[i]);
+					batch.remove(blockPos, true);
+					world.levelEvent(2001, blockPos, Block.getId(states[i]));
+				}
+			}
+
+			for(int i = 0; i < count; i++) {
+				if(canMove(kinds, results, positions, targets, broken, i)) {
+					batch.set(BlockPos.of(targets[i]), states[i]);
+				}
+			}
+		} finally {
+			batch.commit();
 		}
 
 		return null;
 	}
 
+	// The block that was broken earlier in the cast neither moves nor is pushed into, but a run can still pass through it
+	private static boolean canMove(byte[] kinds, byte[] results, long[] positions, long[] targets, long broken, int i) {
+		return kinds[i] == MOVEABLE && results[i] == FREE && positions[i] != broken && targets[i] != broken;
+	}
+
 }
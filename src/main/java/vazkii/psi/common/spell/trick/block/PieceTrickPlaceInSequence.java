@@ -10,13 +10,16 @@
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
 
+import vazkii.psi.api.internal.BlockMutationBatch;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellHelpers;
 import vazkii.psi.api.spell.SpellMetadata;
 import vazkii.psi.api.spell.SpellParam;
 import vazkii.psi.api.spell.SpellRuntimeException;
@@ -79,12 +82,17 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 		Vector3 targetNorm = targetVal.copy().normalize();
 
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
-			if(!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
-				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
-			}
+		long[] positions = MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt);
+		SpellHelpers.ensureBlocksInRadius(context, positions);
 
-			PieceTrickPlaceBlock.placeBlock(context.caster, context.focalPoint.getCommandSenderWorld(), blockPos, context.getTargetSlot(), false, direction, horizontalFacing);
+		Level world = context.focalPoint.getCommandSenderWorld();
+		BlockMutationBatch batch = BlockMutationBatch.begin(world);
+		try {
+			for(long packed : positions) {
+				PieceTrickPlaceBlock.placeBlock(context.caster, world, BlockPos.of(packed), context.getTargetSlot(), false, direction, horizontalFacing);
+			}
+		} finally {
+			batch.commit();
 		}
 
 		return null;
@@ -18,6 +18,7 @@
 import net.minecraftforge.event.level.BlockEvent;
 
 import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.*;
 import vazkii.psi.api.spell.param.ParamVector;
@@ -64,11 +65,12 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		BlockPos pos = positionVal.toBlockPos();
-		if(!context.focalPoint.getCommandSenderWorld().mayInteract(context.caster, pos)) {
+		ChunkAccessCache chunks = context.getChunkCache();
+		if(!chunks.isLoaded(pos) || !chunks.mayInteract(context.caster, pos)) {
 			return null;
 		}
 
-		BlockState state = context.focalPoint.getCommandSenderWorld().getBlockState(pos);
+		BlockState state = chunks.getBlockState(pos);
 		Block block = state.getBlock();
 		ItemStack stack = new ItemStack(block);
 		BlockEvent.BreakEvent event = PieceTrickBreakBlock.createBreakEvent(state, context.caster, context.focalPoint.level, pos, tool);
@@ -11,13 +11,13 @@
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.level.BlockEvent;
 
 import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.internal.ChunkAccessCache;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.*;
@@ -26,6 +26,8 @@
 import vazkii.psi.api.spell.piece.PieceTrick;
 import vazkii.psi.common.spell.selector.entity.PieceSelectorNearbySmeltables;
 
+import java.util.BitSet;
+
 public class PieceTrickSmeltBlockSequence extends PieceTrick {
 	SpellParam<Vector3> position;
 	SpellParam<Vector3> target;
@@ -73,33 +75,56 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		Vector3 targetNorm = targetVal.copy().normalize();
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
-			if(!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
-				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
+		long[] positions = MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt);
+		Level world = context.focalPoint.getCommandSenderWorld();
+		ChunkAccessCache chunks = context.getChunkCache();
+		BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+		// Find the blocks to smelt first, so the break events for all of them can be posted at once
+		long[] candidates = new long[positions.length];
+		BlockState[] states = new BlockState[positions.length];
+		int size = 0;
+		boolean outsideRadius = false;
+		for(long packed : positions) {
+			cursor.set(packed);
+			if(!context.isInRadius(cursor.getX(), cursor.getY(), cursor.getZ())) {
+				outsideRadius = true;
+				break;
 			}
 
-			if(!context.focalPoint.getCommandSenderWorld().mayInteract(context.caster, blockPos)) {
-				return null;
+			if(!chunks.isLoaded(cursor)) {
+				continue;
+			}
+
+			if(!chunks.mayInteract(context.caster, cursor)) {
+				break;
 			}
 
-			BlockState state = context.focalPoint.getCommandSenderWorld().getBlockState(blockPos);
-			Block block = state.getBlock();
-			ItemStack stack = new ItemStack(block);
-			BlockEvent.BreakEvent event = PieceTrickBreakBlock.createBreakEvent(state, context.caster, context.focalPoint.level, blockPos, tool);
-			MinecraftForge.EVENT_BUS.post(event);
-			if(event.isCanceled()) {
+			candidates[size] = packed;
+			states[size++] = chunks.getBlockState(cursor);
+		}
+
+		BitSet denied = PieceTrickBreakBlock.postBreakEvents(world, context.caster, tool, candidates, states, size, true);
+		for(int i = 0; i < size; i++) {
+			if(denied.get(i)) {
 				return null;
 			}
-			ItemStack result = PieceSelectorNearbySmeltables.simulateSmelt(context.focalPoint.getCommandSenderWorld(), stack);
+
+			BlockPos blockPos = BlockPos.of(candidates[i]);
+			ItemStack stack = new ItemStack(states[i].getBlock());
+			ItemStack result = PieceSelectorNearbySmeltables.simulateSmelt(world, stack);
 			if(!result.isEmpty()) {
 				Item item = result.getItem();
 				Block block1 = Block.byItem(item);
 				if(block1 != Blocks.AIR) {
-					context.focalPoint.getCommandSenderWorld().setBlockAndUpdate(blockPos, block1.defaultBlockState());
-					context.focalPoint.getCommandSenderWorld().levelEvent(2001, blockPos, Block.getId(block1.defaultBlockState()));
+					world.setBlockAndUpdate(blockPos, block1.defaultBlockState());
+					world.levelEvent(2001, blockPos, Block.getId(block1.defaultBlockState()));
 				}
 			}
+		}
 
+		if(outsideRadius) {
+			throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 		}
 
 		return null;
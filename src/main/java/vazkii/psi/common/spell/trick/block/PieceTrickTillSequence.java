@@ -62,10 +62,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 		Vector3 targetNorm = targetVal.copy().normalize();
 
-		for(BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
+		BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+		for(long packed : MathHelper.getPackedBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
 
-			if(SpellHelpers.isBlockPosInRadius(context, blockPos)) {
-				PieceTrickTill.tillBlock(context.caster, context.focalPoint.level, blockPos);
+			if(SpellHelpers.isBlockPosInRadius(context, cursor.set(packed))) {
+				PieceTrickTill.tillBlock(context.caster, context.focalPoint.level, cursor.immutable());
 			}
 
 		}
@@ -0,0 +1,33 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.mixin;
+
+import net.minecraft.world.entity.projectile.Projectile;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(Projectile.class)
+public interface AccessorProjectile {
+	@Accessor
+	boolean getHasBeenShot();
+
+	@Accessor
+	void setHasBeenShot(boolean hasBeenShot);
+
+	@Accessor
+	boolean getLeftOwner();
+
+	@Accessor
+	void setLeftOwner(boolean leftOwner);
+
+	@Invoker
+	boolean callCheckLeftOwner();
+}